@@ -5,32 +5,76 @@ import gameobjects.*;
 public class Combine extends Command {
 
     //initialise items to combine
-    private String item1;
-    private String item2;
+    private String[] items;
 
-    public Combine(String item1, String item2){
+    public Combine(String... items){
         //instantiate items and set command type to token COMBINE
-        this.item1 = item1;
-        this.item2 = item2;
+        this.items = items;
         this.commandType = CommandType.COMBINE;
     }
 
+    public String toString(){
+        return "Combine " + String.join(" and ", items);
+    }
+
     public String execute(GameState gameState){
         Player player = gameState.getPlayer(); //get player from the current gameState
-        if(player.hasItem(item1) && player.hasItem(item2)){ //check if player has the inputted items
-            //check if the items are items that can be combined
-            if((player.getItemByName(item1).getName().equals("butter") && player.getItemByName(item2).getName().equals("cream")) || (player.getItemByName(item1).getName().equals("cream") && player.getItemByName(item2).getName().equals("butter"))){
-                //gets the items from the player's inventory by their names
-                Item item1Combine = player.getItemByName(item1);
-                Item item2Combine = player.getItemByName(item2);
-                player.removeFromInventory(item1Combine); //removes the first item from the inventory
-                player.removeFromInventory(item2Combine); //removes the second item from the inventory
-                Item buttercream = new Item("i8", "buttercream", "Buttercream you have made",false); //create the new item object that has been made from combining
-                player.addItem(buttercream); //add the buttercream to the inventory
-                player.increaseScore(); //increase the player's score
-                return "You combine " + item1 + " and " + item2 + " to get " + buttercream.getName(); //return result
+        //gets the objects from the player's inventory by their names, once each
+        GameObject[] inputs = new GameObject[items.length];
+        String[] inputIds = new String[items.length];
+        for(int i = 0; i < items.length; i++){
+            inputs[i] = carried(player, items[i]);
+            if(inputs[i] == null){
+                return "You do not have the required items"; //make player aware that they don't have the items inputted
+            }
+            inputIds[i] = inputs[i].getId();
+        }
+        Recipe recipe = gameState.getUseRules().findRecipe(inputIds); //one lookup, whatever order the items were named in
+        if(recipe == null || !carriesEnough(player, inputs)){
+            return "You do not have the required items"; //the items don't combine, or the same item was named more times than it is carried
+        }
+        ObjectLocations locations = gameState.getLocations(); //record that the inputs are used up
+        for(String name : items){
+            GameObject input = carried(player, name); //look up again, as naming an item twice uses two of its stack
+            if(input instanceof Item){
+                player.removeFromInventory((Item) input);
+            } else{
+                player.removeFromEquipment((Equipment) input);
+            }
+            if(quantity(player, input) > 0){
+                locations.movedToPlayer(input); //the rest of the stack is still carried
+            } else{
+                locations.removed(input);
             }
         }
-        return "You do not have the required items"; //make player aware that they don't have the items inputted or don't have the correct ones to combine
+        recipe.apply(gameState); //give the player what the recipe makes and change their score
+        return recipe.getMessage(); //return result
+    }
+
+    //the item, or failing that the equipment, the player carries with a name
+    private static GameObject carried(Player player, String name){
+        Item item = player.getItemByName(name);
+        return item != null ? item : player.getEquipment().getByName(name);
+    }
+
+    //whether each input is carried at least as many times as it was named
+    private static boolean carriesEnough(Player player, GameObject[] inputs){
+        for(int i = 0; i < inputs.length; i++){
+            int named = 0;
+            for(int j = 0; j < inputs.length; j++){
+                if(inputs[j] == inputs[i]){
+                    named++;
+                }
+            }
+            if(quantity(player, inputs[i]) < named){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //how many objects like this one the player carries
+    private static int quantity(Player player, GameObject object){
+        return object instanceof Item ? player.getInventory().getQuantity((Item) object) : player.getEquipment().getQuantity((Equipment) object);
     }
 }
@@ -0,0 +1,24 @@
+package commands;
+
+import gameobjects.*;
+
+/**
+ * Handles a parsed command of a particular {@code CommandType}.
+ *
+ * <p>
+ * Handlers are registered in a {@code CommandRegistry}; the standard handler simply executes the command
+ * the parser built, but a handler can replace or wrap that behaviour for a verb without touching the game loop.
+ * </p>
+ */
+public interface CommandHandler {
+
+    /**
+    Handles the command against the given game state.
+    Parameters:
+    command - the parsed command
+    gameState - the current state of the game
+    Returns:
+    a string describing the outcome of the command
+    */
+    String handle(Command command, GameState gameState);
+}
@@ -0,0 +1,99 @@
+package commands;
+
+import java.util.ArrayList;
+
+import gameobjects.*;
+
+/**
+ * Runs each parsed command through a list of {@code CommandStage}s and then dispatches it to the handler
+ * registered for its type in a {@code CommandRegistry}.
+ *
+ * <p>
+ * The command built by the parser is the one that executes, so every turn is parsed once and dispatched once.
+ * Stages run in the order they were added.
+ * </p>
+ */
+public class CommandPipeline {
+
+    /**
+     * The remainder of a pipeline, handed to each stage so it can pass the command on.
+     */
+    public interface Next {
+        String proceed(Command command, GameState gameState);
+    }
+
+    private CommandRegistry registry;
+    private ArrayList<CommandStage> stages;
+    private Next[] chain; //chain[i] runs stage i onwards; chain[stages.size()] dispatches to the registry
+
+    /**
+    Creates a pipeline with no stages that dispatches through the given registry.
+    Parameters:
+    registry - the registry of command handlers
+    */
+    public CommandPipeline(CommandRegistry registry){
+        this.registry = registry;
+        this.stages = new ArrayList<>();
+        link();
+    }
+
+    /**
+    Creates the pipeline used by the game: validation, then objective messages added to the rendered output.
+    Parameters:
+    registry - the registry of command handlers
+    Returns:
+    the standard pipeline
+    */
+    public static CommandPipeline standard(CommandRegistry registry){
+        return new CommandPipeline(registry)
+                .addStage(new ValidationStage(registry))
+                .addStage(new ObjectiveStage())
+                .addStage(new RenderStage());
+    }
+
+    /**
+    Adds a stage after the existing ones.
+    Parameters:
+    stage - the stage to add
+    Returns:
+    this pipeline, so stages can be chained
+    */
+    public CommandPipeline addStage(CommandStage stage){
+        stages.add(stage);
+        link();
+        return this;
+    }
+
+    /**
+    Retrieves the registry this pipeline dispatches to.
+    Returns:
+    the command registry
+    */
+    public CommandRegistry getRegistry(){
+        return registry;
+    }
+
+    /**
+    Runs a command through every stage and its handler.
+    Parameters:
+    command - the parsed command
+    gameState - the current state of the game
+    Returns:
+    the response for the turn
+    */
+    public String execute(Command command, GameState gameState){
+        return chain[0].proceed(command, gameState);
+    }
+
+    //prebuilds the links between stages so executing a command allocates nothing
+    private void link(){
+        Next[] links = new Next[stages.size() + 1];
+        links[stages.size()] = (command, gameState) -> registry.getHandler(command.commandType).handle(command, gameState);
+        for(int i = stages.size() - 1; i >= 0; i--){
+            CommandStage stage = stages.get(i);
+            Next rest = links[i + 1];
+            links[i] = (command, gameState) -> stage.process(command, gameState, rest);
+        }
+        this.chain = links;
+    }
+}
@@ -0,0 +1,61 @@
+package commands;
+
+import java.util.EnumMap;
+
+/**
+ * Maps each {@code CommandType} to the {@code CommandHandler} that executes it.
+ *
+ * <p>
+ * Handlers are bound once when the registry is built, so dispatching a turn is a single lookup.
+ * New verbs are added by registering a handler for their command type rather than by editing the game loop.
+ * </p>
+ */
+public class CommandRegistry {
+
+    ///The handler used for built-in verbs: execute the command the parser already built.
+    public static final CommandHandler EXECUTE = (command, gameState) -> command.execute(gameState);
+
+    private EnumMap<CommandType, CommandHandler> handlers;
+
+    ///Creates an empty registry.
+    public CommandRegistry(){
+        this.handlers = new EnumMap<>(CommandType.class);
+    }
+
+    /**
+    Creates a registry with every built-in command type bound to {@link #EXECUTE}.
+    Returns:
+    the standard registry
+    */
+    public static CommandRegistry standard(){
+        CommandRegistry registry = new CommandRegistry();
+        for(CommandType type : CommandType.values()){
+            registry.register(type, EXECUTE);
+        }
+        return registry;
+    }
+
+    /**
+    Registers the handler for a command type, replacing any previous handler.
+    Parameters:
+    type - the command type
+    handler - the handler to run for commands of that type
+    Returns:
+    this registry, so registrations can be chained
+    */
+    public CommandRegistry register(CommandType type, CommandHandler handler){
+        handlers.put(type, handler);
+        return this;
+    }
+
+    /**
+    Retrieves the handler for a command type.
+    Parameters:
+    type - the command type
+    Returns:
+    the registered handler, or null if none is registered
+    */
+    public CommandHandler getHandler(CommandType type){
+        return handlers.get(type);
+    }
+}
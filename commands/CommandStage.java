@@ -0,0 +1,25 @@
+package commands;
+
+import gameobjects.*;
+
+/**
+ * A stage in a {@code CommandPipeline}, such as validation, timing or journaling.
+ *
+ * <p>
+ * Each stage receives the command and decides whether to pass it on to the rest of the pipeline by calling
+ * {@code next.proceed}, so it can act before and after the command runs or stop it altogether.
+ * </p>
+ */
+public interface CommandStage {
+
+    /**
+    Processes a command.
+    Parameters:
+    command - the parsed command
+    gameState - the current state of the game
+    next - the remainder of the pipeline
+    Returns:
+    the response for the turn
+    */
+    String process(Command command, GameState gameState, CommandPipeline.Next next);
+}
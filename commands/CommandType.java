@@ -48,6 +48,8 @@ public enum CommandType {
      */
     QUIT,
     
-    COMBINE;
+    COMBINE,
+
+    GOTO;
 
 }
@@ -46,18 +46,31 @@ public class Drop extends Command {
     public String execute(GameState gameState){
         Player player = gameState.getPlayer();
         Map map = gameState.getMap();
-        Room currentRoom = map.getCurrentRoom();
-        if(player.hasItem(item)){
-            Item itemToDrop = player.getItemByName(item);
+        GameObject found = gameState.getResolver().findCarried(item);
+        if(found instanceof Item){
+            Room currentRoom = map.getCurrentRoomForUpdate();
+            Item itemToDrop = (Item) found;
             player.removeFromInventory(itemToDrop);
             currentRoom.addItem(itemToDrop);
+            recordDrop(gameState, itemToDrop, player.getInventory().getQuantity(itemToDrop), currentRoom);
             return "You drop: " + itemToDrop.getName();
-        } else if(player.hasEquipment(item)){
-            Equipment equipmentToDrop = player.getEquipment(item);
+        } else if(found instanceof Equipment){
+            Room currentRoom = map.getCurrentRoomForUpdate();
+            Equipment equipmentToDrop = (Equipment) found;
             player.removeFromEquipment(equipmentToDrop);
             currentRoom.addEquipment(equipmentToDrop);
+            recordDrop(gameState, equipmentToDrop, player.getEquipment().getQuantity(equipmentToDrop), currentRoom);
             return "You drop: " + equipmentToDrop.getName();
         }
         return "You cannot drop " + item;
     }
+
+    //objects are located by ID, so while the player still carries more of the stack, that is where the ID stays
+    private static void recordDrop(GameState gameState, GameObject dropped, int stillCarried, Room room){
+        if(stillCarried > 0){
+            gameState.getLocations().movedToPlayer(dropped);
+        } else{
+            gameState.getLocations().movedToRoom(dropped, room.getId());
+        }
+    }
 }
@@ -32,11 +32,11 @@ public class Get extends Command {
     a string describing the get command
     */
     public String toString(){
-        return "Move " + item;
+        return "Get " + item;
     }
 
     /**
-    Executes the get command. If the specified item is present in the current room and the player does not already have it, the item is added to the player's inventory. Otherwise, an appropriate message is returned.
+    Executes the get command. If the specified item or equipment is visible in the current room and the player does not already have it, it is added to the player's inventory. Otherwise, an appropriate message is returned.
     Specified by:
     execute in class Command
     Parameters:
@@ -47,25 +47,24 @@ public class Get extends Command {
     public String execute(GameState gameState){
         Player player = gameState.getPlayer();
         Map map = gameState.getMap();
-        Room currentRoom = map.getCurrentRoom();
-        if(currentRoom.hasItem(item)){
-            Item itemToGet = currentRoom.getItemByName(item);
-            if(player.hasItem(item)){
+        ObjectResolver resolver = gameState.getResolver();
+        GameObject found = resolver.findInRoom(item);
+        if(found instanceof Item || found instanceof Equipment){
+            if(resolver.findCarried(item) != null){
                 return "You already have " + item;
-            } else if(itemToGet != null){
-                player.addItem(itemToGet);
-                currentRoom.removeItem(itemToGet);
-                return "You pick up: " + itemToGet.getName();
             }
-        } else if(currentRoom.hasEquipment(item)){
-            Equipment equipmentToGet = currentRoom.getEquipmentByName(item);
-            if(player.hasEquipment(item)){
-                return "You already have " + item;
-            } else if(equipmentToGet != null){
-                player.addEquipment(equipmentToGet);
-                currentRoom.removeEquipment(equipmentToGet);
-                return "You pick up: " + equipmentToGet.getName();
+            map.getCurrentRoomForUpdate(); //the room is about to change, so make sure this game owns it
+            found = resolver.findInRoom(item); //the same object, or its counterpart in the game's own copy of the room
+            Room currentRoom = map.getCurrentRoom();
+            if(found instanceof Item){
+                player.addItem((Item) found);
+                currentRoom.removeItem((Item) found);
+            } else{
+                player.addEquipment((Equipment) found);
+                currentRoom.removeEquipment((Equipment) found);
             }
+            gameState.getLocations().movedToPlayer(found);
+            return "You pick up: " + found.getName();
         }
         return "No " + item + " to get.";
     }
@@ -0,0 +1,76 @@
+package commands;
+
+import java.util.ArrayList;
+
+import gameobjects.*;
+
+/**
+ * Represents the goto command, which walks the player to a room by name along the shortest route.
+ *
+ * <p>
+ * The route follows only exits the player can see. Each step is played as a move in that direction, so walking
+ * a route costs the same as typing the moves one by one, and the response lists every step taken.
+ * </p>
+ */
+public class GoTo extends Command {
+
+    private String roomName;
+    /**
+    Creates a new GoTo command for the specified room.
+    Parameters:
+    roomName - the name of the room to walk to
+    */
+    public GoTo(String roomName){
+        this.roomName = roomName;
+        this.commandType = CommandType.GOTO;
+    }
+
+    /**
+    Returns a string representation of the goto command, including its type and room name.
+    Overrides:
+    toString in class Object
+    Returns:
+    a string describing the goto command
+    */
+    public String toString(){
+        return "GoTo " + roomName;
+    }
+
+    /**
+    Executes the goto command. Finds the shortest route to the named room over the visible exits and moves along it.
+    Specified by:
+    execute in class Command
+    Parameters:
+    gameState - the current state of the game
+    Returns:
+    the moves made, or why the room cannot be reached
+    */
+    public String execute(GameState gameState){
+        Map map = gameState.getMap();
+        ExitGraph exits = map.getExitGraph();
+        ArrayList<Direction> route;
+        if(exits != null && map.getCurrentRoomNumber() >= 0){
+            PathFinder paths = exits.getPathFinder();
+            int destination = paths.findRoom(roomName);
+            if(destination < 0){
+                return "There is no room called " + roomName + ".";
+            }
+            route = paths.findRoute(map, destination);
+        } else{
+            route = PathFinder.searchRooms(map, roomName, PathFinder.SEARCH_BUDGET); //only nearby rooms, as each one is read from the world
+        }
+
+        if(route == null){
+            return "You cannot find a way to " + roomName + ".";
+        }
+        if(route.isEmpty()){
+            return "You are already in " + map.getCurrentRoom().getName() + ".";
+        }
+        StringBuilder out = new StringBuilder();
+        for(Direction direction : route){
+            out.append(Move.towards(direction).execute(gameState));
+        }
+        out.append("You arrive at ").append(map.getCurrentRoom().getName()).append(".\n");
+        return out.toString();
+    }
+}
@@ -13,6 +13,21 @@ import gameobjects.*;
  */
 public class Help extends Command {
 
+    ///The general help text. It never changes, so servers can keep it pre-encoded.
+    public static final String GENERAL_HELP = "Welcome to the game! \n" +
+            "Commands: \n" +
+            "- MOVE <exit name>: Move to a different location \n" +
+            "- GOTO <room name>: Walk to a room you name by the shortest route \n" +
+            "- LOOK <room|exit|features>|<item name>|<equipment name>|<feature name>: Look around the current room, at an exit, at a feature, or, at a specific item, equipment or feature \n" +
+            "- GET <item name|equipment name>: Pick up an item or equipment from the current room \n" +
+            "- DROP <item name|equipment name>: Drop an item or equipment from your inventory \n" +
+            "- USE <equipment name> on|with <feature|item>: Use an item in your inventory on its own, or on a feature or item \n" +
+            "- STATUS <inventory|player|item name|equipment name|map|score>: Check your current status, or inventory; or get more information about a specific item or equipment in your inventory. Also able to display the map and your score \n" +
+            "- HELP <topic>: Display this help information or get help on a specific topic \n" +
+            "- COMBINE <item1> and <item2> [and <item3> [and <item4>]]: Combine two or more items into a new item or equipment \n" +
+            "- QUIT: Exit the game \n" +
+            "\nYou need to collect these ingredients: eggs, syrup, liquor, sweets, sugar, buttercream";
+
     private String topic;
     /**
     Creates a new Help command for the specified topic.
@@ -50,26 +65,11 @@ public class Help extends Command {
     */
     public String execute(GameState gameState){
         if(topic == null || topic.isEmpty()){
-            return generalHelp();
+            return GENERAL_HELP;
         }
         return topicHelp(topic);
     }
 
-    private String generalHelp(){
-        return "Welcome to the game! \n" +
-                "Commands: \n" +
-                "- MOVE <exit name>: Move to a different location \n" +
-                "- LOOK <room|exit|features>|<item name>|<equipment name>|<feature name>: Look around the current room, at an exit, at a feature, or, at a specific item, equipment or feature \n" +
-                "- GET <item name|equipment name>: Pick up an item or equipment from the current room \n" +
-                "- DROP <item name|equipment name>: Drop an item or equipment from your inventory \n" +
-                "- USE <equipment name> on|with <feature|item>: Use an item in your inventory on its own, or on a feature or item \n" +
-                "- STATUS <inventory|player|item name|equipment name|map|score>: Check your current status, or inventory; or get more information about a specific item or equipment in your inventory. Also able to display the map and your score \n" +
-                "- HELP <topic>: Display this help information or get help on a specific topic \n" +
-                "- COMBINE <item1> and <item2>: Combine two items into a new item or equipment \n" +
-                "- QUIT: Exit the game \n" + 
-                "\nYou need to collect these ingredients: eggs, syrup, liquor, sweets, sugar, buttercream";
-    }
-
     private String topicHelp(String topic){
         switch(topic.toLowerCase()){
             case "move":
@@ -89,9 +89,11 @@ public class Help extends Command {
             case "help":
                 return "Display this help information or get help on a specific topic";
             case "combine":
-                return "Combine two items into a new item or equipment";
+                return "Combine two, three or four items into a new item or equipment, naming them in any order";
             case "quit":
                 return "Exit the game";
+            case "goto":
+                return "Walk to a room you name by the shortest route through the exits you can see";
             case "ingredients":
                 return "Ingredients list: eggs, syrup, liquor, sweets, sugar, buttercream";
         }
@@ -0,0 +1,43 @@
+package commands;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+import gameobjects.*;
+
+/**
+ * Pipeline stage that records the most recent commands and their responses, e.g. for replaying or auditing a session.
+ */
+public class JournalStage implements CommandStage {
+
+    private ArrayDeque<String> entries;
+    private int capacity;
+
+    /**
+    Creates a journal that keeps the given number of most recent entries.
+    Parameters:
+    capacity - the maximum number of entries kept
+    */
+    public JournalStage(int capacity){
+        this.entries = new ArrayDeque<>();
+        this.capacity = capacity;
+    }
+
+    public String process(Command command, GameState gameState, CommandPipeline.Next next){
+        String response = next.proceed(command, gameState);
+        if(entries.size() == capacity){
+            entries.removeFirst();
+        }
+        entries.addLast(command + " -> " + response);
+        return response;
+    }
+
+    /**
+    Retrieves the recorded entries, oldest first.
+    Returns:
+    a list of "command -> response" entries
+    */
+    public ArrayList<String> getEntries(){
+        return new ArrayList<>(entries);
+    }
+}
@@ -1,7 +1,6 @@
 package commands;
 
 import gameobjects.*;
-import java.util.ArrayList;
 
 /**
  * Represents the look command, allowing the player to examine various elements of the game world.
@@ -40,7 +39,7 @@ public class Look extends Command {
     If the target is "room", it displays the room's description and all visible objects.
     If the target is "exits", it lists the visible exits in the room.
     If the target is "features", it lists additional visible features in the room.
-    If the target matches an item, feature or equipment name, it displays the description of that object.
+    Otherwise the target is resolved by name among the visible objects in the room and then the objects the player carries, and that object's description is displayed.
     Hidden objects are not included unless they are explicitly revealed in the game state.
     Specified by:
     execute in class Command
@@ -52,43 +51,27 @@ public class Look extends Command {
     public String execute(GameState gameState){
         Map map = gameState.getMap();
         Room currentRoom = map.getCurrentRoom();
-        return lookTarget(target, currentRoom);
+        return lookTarget(target, currentRoom, gameState.getResolver());
     }
 
-    public String lookTarget(String target, Room room){
+    public String lookTarget(String target, Room room, ObjectResolver resolver){
+        StringBuilder out = new StringBuilder();
         switch(target){
             case "room":
-                return room.getDescription() + "\nYou see:\n" + getDescriptions(room.getFeatures()) + getDescriptions(room.getEquipments()) + getDescriptions(room.getItems()) + getDescriptions(room.getExits());
+                return room.describe();
             case "exits":
-                return "The available exits are:\n" + getDescriptions(room.getExits());
+                out.append("The available exits are:\n");
+                room.appendVisibleExits(out);
+                return out.toString();
             case "features":
-                return "You also see:\n" + getDescriptions(room.getFeatures());
-            case "key":
-                return "A rusty old key.";
-            case "poster":
-                return "A poster with a peculiar acrostic poem - 'Dreaming Of Novel Unity Today'. You can safely assume that 'DONUT' is a code of some sort.";
+                out.append("You also see:\n");
+                room.appendVisibleFeatures(out);
+                return out.toString();
         }
-        return "";
-    }
-
-    public <T extends GameObject> String getDescriptions(ArrayList<T> objects){
-        if(objects.isEmpty()){
-            return "";
-        }
-
-        StringBuilder descriptions = new StringBuilder();
-        for(GameObject object : objects){
-            if(object instanceof Item && (((Item) object).getHidden() == true)){
-                continue;
-            }
-            if(object instanceof Feature && (((Feature) object).getHidden() == true)){
-                continue;
-            }
-            if(object instanceof Equipment && (((Equipment) object).getHidden() == true)){
-                continue;
-            }
-            descriptions.append(object.getDescription()).append("\n");
+        GameObject object = resolver.find(target);
+        if(object == null){
+            return "You cannot see " + target;
         }
-        return descriptions.toString();
+        return object.getDescription();
     }
 }
@@ -12,7 +12,12 @@ import gameobjects.*;
  */
 public class Move extends Command {
 
+    ///A move has no state beyond its direction, so one instance per direction serves every game.
+    private static final Move[] TOWARDS = towardsEach();
+    private static final String NO_EXIT = "No exit found in that direction.";
+
     private String direction;
+    private Direction compass; //null when the direction is not a compass direction
     /**
     Creates a new Move command for the specified direction.
     Parameters:
@@ -20,9 +25,30 @@ public class Move extends Command {
     */
     public Move(String direction){
         this.direction = direction;
+        this.compass = Direction.fromName(direction);
         this.commandType = CommandType.MOVE;
     }
 
+    private static Move[] towardsEach(){
+        Direction[] directions = Direction.values();
+        Move[] moves = new Move[directions.length];
+        for(Direction direction : directions){
+            moves[direction.ordinal()] = new Move(direction.getWord());
+        }
+        return moves;
+    }
+
+    /**
+    Retrieves the move command for a compass direction.
+    Parameters:
+    direction - the direction to move in
+    Returns:
+    the shared Move command for that direction
+    */
+    public static Move towards(Direction direction){
+        return TOWARDS[direction.ordinal()];
+    }
+
     /**
     Returns a string representation of the move command, including its type and direction.
     Overrides:
@@ -36,6 +62,8 @@ public class Move extends Command {
 
     /**
     Executes the move command. If the specified direction corresponds to an available exit in the current room, the player's location is updated to the connected room. Otherwise, no movement occurs.
+    When the current room is as the world was loaded, the move is read from the world's exit graph; a room this game
+    has changed, or a world without an exit graph, is moved through the room's exits.
     Specified by:
     execute in class Command
     Parameters:
@@ -44,44 +72,35 @@ public class Move extends Command {
     a string describing the result of the move command
     */
     public String execute(GameState gameState){
+        if(compass == null){
+            return NO_EXIT;
+        }
         Map map = gameState.getMap();
-        Player player = gameState.getPlayer();
-        Room currentRoom = map.getCurrentRoom();
-        Exit exit = currentRoom.getExitByName(direction);
+        ExitGraph exits = map.getExitGraph();
+        int room = map.getCurrentRoomNumber();
 
-        if(exit != null){
-            String nextRoomId = exit.getNextRoom();
-            switch(direction.toLowerCase()){
-                case "north":
-                    if (currentRoom.getExitByName("north") != null && (!currentRoom.getExitByName("north").getHidden())) {
-                        map.setCurrentRoom(nextRoomId);
-                        player.decreaseScore();
-                        return "Moving towards north\n";
-                    }
-                    break;
-                case "south":
-                    if (currentRoom.getExitByName("south") != null && (!currentRoom.getExitByName("south").getHidden())) {
-                        map.setCurrentRoom(nextRoomId);
-                        player.decreaseScore();
-                        return "Moving towards south\n";
-                    }
-                    break;
-                case "west":
-                    if (currentRoom.getExitByName("west") != null && (!currentRoom.getExitByName("west").getHidden())) {
-                        map.setCurrentRoom(nextRoomId);
-                        player.decreaseScore();
-                        return "Moving towards west\n";
-                    }
-                    break;
-                case "east":
-                    if (currentRoom.getExitByName("east") != null &&(!currentRoom.getExitByName("east").getHidden())) {
-                        map.setCurrentRoom(nextRoomId);
-                        player.decreaseScore();
-                        return "Moving towards east\n";
-                    }
-                    break;
+        if(exits != null && room >= 0 && !map.ownsRoom(room)){
+            int target = exits.getTarget(room, compass);
+            if(target >= 0){
+                if(exits.isHidden(room, compass)){
+                    return NO_EXIT;
+                }
+                map.setCurrentRoom(target);
+                gameState.getPlayer().decreaseScore();
+                return compass.getMovingMessage();
             }
+            if(target == ExitGraph.NONE){
+                return NO_EXIT;
+            }
+            //the exit leads to a room the world does not have; let the map report it as before
+        }
+
+        Exit exit = map.getCurrentRoom().getExitByName(compass.getWord());
+        if(exit != null && !exit.getHidden()){
+            map.setCurrentRoom(exit.getNextRoom());
+            gameState.getPlayer().decreaseScore();
+            return compass.getMovingMessage();
         }
-        return "No exit found in that direction.";
+        return NO_EXIT;
     }
 }
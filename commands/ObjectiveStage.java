@@ -0,0 +1,25 @@
+package commands;
+
+import gameobjects.*;
+
+/**
+ * Pipeline stage that tells the player about objectives the turn completed, after the command's own response.
+ *
+ * <p>
+ * The player's {@code ObjectiveTracker} notices completion as objects enter the inventory; this stage only hands
+ * on the messages it queued, so turns that complete nothing cost a single check.
+ * </p>
+ */
+public class ObjectiveStage implements CommandStage {
+
+    public String process(Command command, GameState gameState, CommandPipeline.Next next){
+        String response = next.proceed(command, gameState);
+        Player player = gameState.getPlayer();
+        ObjectiveTracker objectives = player != null ? player.getObjectives() : null;
+        if(objectives == null){
+            return response;
+        }
+        String events = objectives.takeEvents();
+        return events.isEmpty() ? response : response + "\n" + events;
+    }
+}
@@ -17,6 +17,17 @@ public class Quit extends Command {
         this.commandType = CommandType.QUIT;
     }
 
+    /**
+    Returns a string representation of the quit command.
+    Overrides:
+    toString in class Object
+    Returns:
+    a string describing the quit command
+    */
+    public String toString(){
+        return "Quit";
+    }
+
     /**
     Executes the quit command. This implementation returns a game-over message along with the player's current status.
     Specified by:
@@ -0,0 +1,18 @@
+package commands;
+
+import gameobjects.*;
+
+/**
+ * Pipeline stage that turns the handler's result into the text shown to the player, so a handler
+ * that has nothing to say produces an empty response rather than "null".
+ */
+public class RenderStage implements CommandStage {
+
+    public String process(Command command, GameState gameState, CommandPipeline.Next next){
+        String response = next.proceed(command, gameState);
+        if(response == null){
+            return "";
+        }
+        return response;
+    }
+}
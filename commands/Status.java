@@ -52,25 +52,18 @@ public class Status extends Command {
         Map map = gameState.getMap();
         if(topic.equalsIgnoreCase("inventory")){
             StringBuilder inventory = new StringBuilder();
-            for(Item item : player.getInventory()){
-                inventory.append(item.getName()).append(" ");
-            }
-            for(Equipment equipment : player.getEquipment()){
-                inventory.append(equipment.getName()).append(" ");
-            }
+            appendNames(inventory, player.getInventory());
+            appendNames(inventory, player.getEquipment());
             return inventory.toString();
         }
 
-        for(Item item : player.getInventory()){
-            if(item.getName().equalsIgnoreCase(topic)){
-                return item.getDescription();
-            }
+        Item item = player.getInventory().getByName(topic);
+        if(item != null){
+            return item.getDescription();
         }
-
-        for(Equipment equipment : player.getEquipment()){
-            if(equipment.getName().equalsIgnoreCase(topic)){
-                return equipment.getDescription();
-            }
+        Equipment equipment = player.getEquipment().getByName(topic);
+        if(equipment != null){
+            return equipment.getDescription();
         }
 
         if(topic.equalsIgnoreCase("player")){
@@ -89,4 +82,16 @@ public class Status extends Command {
         
         return "";
     }
+
+    //lists each stack's name, with its quantity when there is more than one
+    private <T extends GameObject> void appendNames(StringBuilder out, Inventory<T> objects){
+        for(T object : objects){
+            out.append(object.getName());
+            int quantity = objects.getQuantity(object);
+            if(quantity > 1){
+                out.append(" x").append(quantity);
+            }
+            out.append(" ");
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package commands;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import gameobjects.*;
+
+/**
+ * Pipeline stage that counts the commands of each type and the time spent executing them.
+ *
+ * <p>
+ * Counters are updated atomically, so one timing stage can be shared by the pipelines of many games.
+ * </p>
+ */
+public class TimingStage implements CommandStage {
+
+    private AtomicLongArray counts;
+    private AtomicLongArray nanos;
+
+    ///Creates a timing stage with all counters at zero.
+    public TimingStage(){
+        this.counts = new AtomicLongArray(CommandType.values().length);
+        this.nanos = new AtomicLongArray(CommandType.values().length);
+    }
+
+    public String process(Command command, GameState gameState, CommandPipeline.Next next){
+        long start = System.nanoTime();
+        try{
+            return next.proceed(command, gameState);
+        } finally {
+            int type = command.commandType.ordinal();
+            counts.incrementAndGet(type);
+            nanos.addAndGet(type, System.nanoTime() - start);
+        }
+    }
+
+    /**
+    Retrieves how many commands of a type have run.
+    Parameters:
+    type - the command type
+    Returns:
+    the number of commands executed
+    */
+    public long getCount(CommandType type){
+        return counts.get(type.ordinal());
+    }
+
+    /**
+    Retrieves the total time spent executing commands of a type.
+    Parameters:
+    type - the command type
+    Returns:
+    the total execution time in nanoseconds
+    */
+    public long getNanos(CommandType type){
+        return nanos.get(type.ordinal());
+    }
+}
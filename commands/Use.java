@@ -2,14 +2,13 @@ package commands;
 
 import gameobjects.*;
 
-import java.util.ArrayList;
-
 /**
  * Represents the use command, allowing the player to use equipment on a specific target in the game.
  *
  * <p>
  * The use command checks if the player has the specified equipment and whether it can interact with
- * the target. The target can be a feature, item, or the current room, depending on the game context.
+ * the target. The target can be any visible feature, item, piece of equipment or exit in the current room; what
+ * happens is decided by the world's use rules.
  * </p>
  */
 public class Use extends Command {
@@ -40,7 +39,8 @@ public class Use extends Command {
     }
 
     /**
-    Executes the use command. Checks if the player has the specified equipment and whether the equipment can interact with the target. If valid, the equipment is used on the target.
+    Executes the use command. Checks if the player has the specified equipment and finds the world's rule for using it on the target, which is looked up by the pair of IDs.
+    A rule's effects can reach any room in the world, and each rule fires once per game.
     Specified by:
     execute in class Command
     Parameters:
@@ -49,39 +49,25 @@ public class Use extends Command {
     a string describing the result of the command execution
     */
     public String execute(GameState gameState){
-        Player player = gameState.getPlayer();
-        Map map = gameState.getMap();
-        Room room = map.getCurrentRoom();
-        Feature container = room.getFeatureByName(target);
+        ObjectResolver resolver = gameState.getResolver();
+        GameObject carried = resolver.findCarried(equipmentName);
+        if(!(carried instanceof Equipment)){
+            return "You do not have " + equipmentName;
+        }
+        Equipment equipment = (Equipment) carried;
+        GameObject targetObject = resolver.findInRoom(target);
+        if(targetObject == null){
+            return "Invalid use target";
+        }
 
-        if(player.hasEquipment(equipmentName)) {
-            Equipment equipment = player.getEquipment(equipmentName);
-            UseInformation info = equipment.getUseInformation();
-            if(container == null){
-                return "Invalid use target";
-            } else if (!info.isUsed()) {
-                if (info.getTarget().equals(container.getId())) {
-                    if(room.hasItemId(info.getResult())){
-                        Item item = room.getItemById(info.getResult());
-                        if(item.getHidden()){
-                            item.setHidden(false);
-                        }
-                    }else if(room.hasEquipmentId(info.getResult())){
-                        Equipment hiddenEquip = room.getEquipById(info.getResult());
-                        if(hiddenEquip.getHidden()){
-                            hiddenEquip.setHidden(false);
-                        }
-                    }
-                    player.increaseScore();
-                    info.setUsed(true);
-                    return info.getMessage();
-                } else {
-                    return "Invalid use target";
-                }
-            } else {
-                return "You have already used " + equipmentName;
-            }
+        UseRule rule = gameState.getUseRules().find(equipment.getId(), targetObject.getId());
+        if(rule == null){
+            return "Invalid use target";
+        } else if(gameState.isUsed(rule)){
+            return "You have already used " + equipmentName;
         }
-        return "You do not have " + equipmentName;
+        gameState.setUsed(rule);
+        rule.apply(gameState);
+        return rule.getMessage();
     }
 }
@@ -0,0 +1,31 @@
+package commands;
+
+import gameobjects.*;
+
+/**
+ * Pipeline stage that rejects commands that cannot be dispatched, such as a missing command or a
+ * command type with no registered handler.
+ */
+public class ValidationStage implements CommandStage {
+
+    private CommandRegistry registry;
+
+    /**
+    Creates a validation stage for the given registry.
+    Parameters:
+    registry - the registry commands are dispatched to
+    */
+    public ValidationStage(CommandRegistry registry){
+        this.registry = registry;
+    }
+
+    public String process(Command command, GameState gameState, CommandPipeline.Next next){
+        if(command == null || command.commandType == null || registry.getHandler(command.commandType) == null){
+            return "Invalid command";
+        }
+        if(gameState == null || gameState.getMap() == null || gameState.getPlayer() == null){
+            return "The game has not been loaded";
+        }
+        return next.proceed(command, gameState);
+    }
+}
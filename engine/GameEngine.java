@@ -0,0 +1,168 @@
+package engine;
+
+import commands.*;
+import gameobjects.*;
+import parser.*;
+import utils.*;
+
+/**
+ * An embeddable instance of the game that turns lines of player input into responses.
+ *
+ * <p>
+ * Every piece of per-game state (the game state, tokeniser, parser and command pipeline) is owned by the
+ * engine instance, so a host can run any number of independent games in one JVM. An engine is meant to be
+ * driven by one session at a time; different engines can be used from different threads freely.
+ * </p>
+ */
+public class GameEngine {
+
+    ///The world file loaded when no other is given.
+    public static final String DEFAULT_WORLD = "mygame.txt";
+
+    ///The scene-setting text shown when a game starts, before the first room is described.
+    public static final String INTRO = "Game loaded successfully.\n" +
+            "\n" +
+            "You are a spy; codename: Moonlight.\n" +
+            "You have been tasked to get closer to your enemy in a particular way...\n" +
+            "By making their favourite dessert.\n" +
+            "However, time is ticking, and the night has dawned.\n" +
+            "You may have to find the ingredients in not-so-legal ways...\n" +
+            "Currently, you are at the mall, after lights out. You have entered through the first shop in the mall, and many closed shops surround you.\n" +
+            "Luckily for you, some of them are still open, and you can get them very legally.\n" +
+            "It is up to you to find all of the ingredients.\n" +
+            "\n" +
+            "In the first shop, there are shops to your east and south.\n" +
+            "\n";
+
+    private GameState gameState;
+    private Tokeniser tokeniser;
+    private Parser parser;
+    private CommandPipeline pipeline;
+    private boolean finished;
+    private CommandType lastCommandType;
+
+    /**
+    Creates an engine for a game state using the standard command pipeline.
+    Parameters:
+    gameState - the state of the game this engine plays
+    */
+    public GameEngine(GameState gameState){
+        this(gameState, CommandPipeline.standard(CommandRegistry.standard()));
+    }
+
+    /**
+    Creates an engine for a game state that dispatches commands through the given pipeline.
+    Parameters:
+    gameState - the state of the game this engine plays
+    pipeline - the pipeline commands are executed through
+    */
+    public GameEngine(GameState gameState, CommandPipeline pipeline){
+        this.gameState = gameState;
+        this.tokeniser = new Tokeniser();
+        this.parser = new Parser();
+        this.pipeline = pipeline;
+    }
+
+    /**
+    Creates an engine for a new game in a world that has already been loaded, sharing the world's rooms with other games.
+    Parameters:
+    world - the loaded world
+    */
+    public GameEngine(WorldSource world){
+        this(world.newGameState());
+    }
+
+    /**
+    Loads a world for any number of games to be played in.
+    Parameters:
+    filename - the world file to load
+    roomCacheBytes - 0 to load the whole world up front, or the memory budget for rooms when they should be read from the file as games enter them
+    Returns:
+    the loaded world
+    */
+    public static WorldSource loadWorld(String filename, long roomCacheBytes){
+        if(roomCacheBytes > 0){
+            return LazyWorld.open(filename, roomCacheBytes);
+        }
+        return WorldSnapshot.load(filename);
+    }
+
+    /**
+    Creates an engine for a new game loaded from a world file.
+    Parameters:
+    filename - the world file to load
+    Returns:
+    the engine for the loaded game
+    */
+    public static GameEngine load(String filename){
+        return new GameEngine(WorldSnapshot.load(filename).newGameState());
+    }
+
+    /**
+    Retrieves the state of the game this engine plays.
+    Returns:
+    the game state
+    */
+    public GameState getGameState(){
+        return gameState;
+    }
+
+    /**
+    Checks whether the player has quit the game.
+    Returns:
+    true once a quit command has been submitted
+    */
+    public boolean isFinished(){
+        return finished;
+    }
+
+    /**
+    Retrieves the type of the last command that was played, which lets a host recognise responses worth caching, such as room descriptions.
+    Returns:
+    the type of the last valid command, or null if the last line was invalid or no line has been played
+    */
+    public CommandType getLastCommandType(){
+        return lastCommandType;
+    }
+
+    /**
+    Starts the game, returning the introduction and a description of the first room.
+    Returns:
+    the opening text for the player
+    */
+    public String start(){
+        return INTRO + describeRoom();
+    }
+
+    /**
+    Describes the room the player is in, as the LOOK room command does.
+    Returns:
+    the description of the current room and what can be seen in it
+    */
+    public String describeRoom(){
+        return pipeline.execute(new Look("room"), gameState);
+    }
+
+    /**
+    Plays one line of player input.
+    Parameters:
+    line - the player's input
+    Returns:
+    the response to show the player, including the message for invalid commands
+    */
+    public String submit(String line){
+        tokeniser.tokenise(line);
+        lastCommandType = null;
+        try{
+            Command command = parser.parse(tokeniser.getTokens());
+            lastCommandType = command.commandType;
+            String response = pipeline.execute(command, gameState);
+            if(command.commandType == CommandType.QUIT){
+                finished = true;
+            }
+            return response;
+        } catch (CommandErrorException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -37,6 +37,18 @@ public class Container extends Feature {
         return this.name;
     }
 
+    /**
+    Creates a copy of this container for a single game session. The copy shares this container's strings.
+    Overrides:
+    copy in class Feature
+    Returns:
+    a new Container with the same attributes
+    */
+    @Override
+    public Container copy(){
+        return new Container(id, name, description, hidden);
+    }
+
     /**
      * Returns a string representation of the container.
      * Overrides: toString in class Feature
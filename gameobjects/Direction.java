@@ -0,0 +1,114 @@
+package gameobjects;
+
+/**
+ * The compass directions exits can lead in.
+ *
+ * <p>
+ * An exit leads in a direction when its name is the direction's word, such as "north". The tokeniser resolves
+ * direction words and their abbreviations to these constants, so moving never compares strings.
+ * </p>
+ */
+public enum Direction {
+    NORTH("north", 0, -1),
+    SOUTH("south", 0, 1),
+    EAST("east", 1, 0),
+    WEST("west", -1, 0);
+
+    private static final Direction[] VALUES = values();
+
+    private final String word;
+    private final String movingMessage;
+    private final int dx;
+    private final int dy;
+
+    Direction(String word, int dx, int dy){
+        this.word = word;
+        this.movingMessage = "Moving towards " + word + "\n";
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    /**
+    Finds the direction an exit name or word stands for.
+    Parameters:
+    word - the word, in any case
+    Returns:
+    the direction, or null if the word is not a direction
+    */
+    public static Direction fromName(String word){
+        if(word == null){
+            return null;
+        }
+        for(Direction direction : VALUES){
+            if(direction.word.equalsIgnoreCase(word)){
+                return direction;
+            }
+        }
+        return null;
+    }
+
+    /**
+    Retrieves the direction with the given ordinal without allocating the array values() returns.
+    Parameters:
+    ordinal - the direction's ordinal
+    Returns:
+    the direction
+    */
+    public static Direction fromOrdinal(int ordinal){
+        return VALUES[ordinal];
+    }
+
+    /**
+    Retrieves the word for this direction, which is also the name of exits leading this way.
+    Returns:
+    the lower case word, e.g. "north"
+    */
+    public String getWord(){
+        return word;
+    }
+
+    /**
+    Retrieves the message shown when the player moves this way.
+    Returns:
+    the message
+    */
+    public String getMovingMessage(){
+        return movingMessage;
+    }
+
+    /**
+    Retrieves the direction leading back the way this one came.
+    Returns:
+    the opposite direction
+    */
+    public Direction opposite(){
+        switch(this){
+            case NORTH:
+                return SOUTH;
+            case SOUTH:
+                return NORTH;
+            case EAST:
+                return WEST;
+            default:
+                return EAST;
+        }
+    }
+
+    /**
+    Retrieves how far east a step in this direction goes on a grid.
+    Returns:
+    -1, 0 or 1
+    */
+    public int getDx(){
+        return dx;
+    }
+
+    /**
+    Retrieves how far south a step in this direction goes on a grid.
+    Returns:
+    -1, 0 or 1
+    */
+    public int getDy(){
+        return dy;
+    }
+}
@@ -2,47 +2,21 @@ package gameobjects;
 
 import java.util.ArrayList;
 
-public class Equipment extends GameObject implements Usable {
-
-    protected UseInformation useInformation;
+public class Equipment extends GameObject {
 
     /**
-    Creates a new Equipment object with the specified attributes.
+    Creates a new Equipment object with the specified attributes. What using it does is decided by the world's use rules.
     Parameters:
     id - the unique identifier for the equipment
     name - the name of the equipment
     description - the description of the equipment
     hidden - whether the equipment is initially hidden
-    useInformation - the information about how the equipment is used
     */
-    public Equipment(String id, String name, String description, boolean hidden, UseInformation useInformation){
+    public Equipment(String id, String name, String description, boolean hidden){
         this.id = id;
         this.name = name;
         this.description = description;
         this.hidden = hidden;
-        this.useInformation = useInformation;
-    }
-
-    /**
-    Sets the use information for this equipment.
-    Specified by:
-    setUseInformation in interface Usable
-    Parameters:
-    useInformation - the information detailing how the equipment is used
-    */
-    public void setUseInformation(UseInformation useInformation){
-        this.useInformation = useInformation;
-    }
-
-    /**
-    Retrieves the use information for this equipment.
-    Specified by:
-    getUseInformation in interface Usable
-    Returns:
-    the use information associated with this equipment
-    */
-    public UseInformation getUseInformation(){
-        return this.useInformation;
     }
 
     /**
@@ -55,7 +29,7 @@ public class Equipment extends GameObject implements Usable {
     */
     public String use(GameObject target, GameState gameState){
         Map map = gameState.getMap();
-        Room currentRoom = map.getCurrentRoom();
+        Room currentRoom = map.getCurrentRoomForUpdate();
         if(target.getName().equals("Treasure Chest")){
             Item item = currentRoom.getItemByName("Gold coin");
             if(item.getHidden()){
@@ -73,13 +47,12 @@ public class Equipment extends GameObject implements Usable {
     }
 
     /**
-     * Returns a string representation of this equipment, including the attributes inherited from {@code GameObject}
-     * and the associated use information.
-     * Overrides: toString in class GameObject
-     * @return a string describing the equipment
-     */
-    @Override
-    public String toString() {
-        return super.toString() + ", useInformation=" + useInformation;
+    Creates a copy of this equipment for a single game session.
+    The copy shares this equipment's strings.
+    Returns:
+    a new Equipment with the same attributes
+    */
+    public Equipment copy(){
+        return new Equipment(id, name, description, hidden);
     }
 }
@@ -37,6 +37,15 @@ public class Exit extends GameObject {
         return this.nextRoom;
     }
 
+    /**
+    Creates a copy of this exit for a single game session. The copy shares this exit's strings.
+    Returns:
+    a new Exit with the same attributes
+    */
+    public Exit copy(){
+        return new Exit(id, name, description, nextRoom, hidden);
+    }
+
     /**
      * Returns a string representation of the exit, including attributes inherited from {@code GameObject}
      * and the identifier of the next room.
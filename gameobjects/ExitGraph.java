@@ -0,0 +1,140 @@
+package gameobjects;
+
+import java.util.BitSet;
+
+/**
+ * The exits of a loaded world compiled into flat arrays indexed by room number and {@code Direction}.
+ *
+ * <p>
+ * Rooms are numbered as in the world's {@code Map}. For each room and direction the graph holds the number of the
+ * room the exit leads to, or {@link #NONE}, and whether the exit is hidden, so a move is a single array read.
+ * The graph describes the world as loaded; a game that changes a room, for example by revealing an exit, holds
+ * its own copy of the room, and moves from that room go through its exits instead.
+ * </p>
+ */
+public class ExitGraph {
+
+    ///No exit leads this way.
+    public static final int NONE = -1;
+    ///An exit leads this way, but to a room the world does not have.
+    public static final int MISSING = -2;
+
+    private static final int DIRECTIONS = Direction.values().length;
+
+    private Map rooms;
+    private int[] targets; //room * DIRECTIONS + direction -> room number, NONE or MISSING
+    private BitSet hidden; //same indexing as targets
+    private PathFinder paths; //built on first use
+    private MapLayout layout; //built on first use
+
+    /**
+    Compiles the exits of every room in a map.
+    Parameters:
+    rooms - the loaded world's rooms
+    */
+    public ExitGraph(Map rooms){
+        this.rooms = rooms;
+        int count = rooms.getRooms().size();
+        this.targets = new int[count * DIRECTIONS];
+        this.hidden = new BitSet(count * DIRECTIONS);
+        for(int room = 0; room < count; room++){
+            Room from = rooms.getRoom(room);
+            for(int d = 0; d < DIRECTIONS; d++){
+                int index = room * DIRECTIONS + d;
+                Exit exit = from.getExitByName(Direction.fromOrdinal(d).getWord());
+                if(exit == null){
+                    targets[index] = NONE;
+                    continue;
+                }
+                int target = rooms.getRoomNumber(exit.getNextRoom());
+                targets[index] = target >= 0 ? target : MISSING;
+                hidden.set(index, exit.getHidden());
+            }
+        }
+    }
+
+    /**
+    Retrieves the number of the room an exit leads to.
+    Parameters:
+    room - the number of the room the exit is in
+    direction - the direction of the exit
+    Returns:
+    the target room's number, NONE if the room has no exit that way, or MISSING if the exit leads to an unknown room
+    */
+    public int getTarget(int room, Direction direction){
+        return targets[room * DIRECTIONS + direction.ordinal()];
+    }
+
+    /**
+    Checks whether an exit was hidden when the world was loaded.
+    Parameters:
+    room - the number of the room the exit is in
+    direction - the direction of the exit
+    Returns:
+    true if the exit is hidden
+    */
+    public boolean isHidden(int room, Direction direction){
+        return hidden.get(room * DIRECTIONS + direction.ordinal());
+    }
+
+    //where a visible exit leads, by direction ordinal, or a negative number if there is none
+    int visibleTarget(int room, int direction){
+        int index = room * DIRECTIONS + direction;
+        return hidden.get(index) ? NONE : targets[index];
+    }
+
+    /**
+    Retrieves the path finder for this world, building it the first time it is needed.
+    Returns:
+    the shared path finder
+    */
+    public synchronized PathFinder getPathFinder(){
+        if(paths == null){
+            paths = new PathFinder(this);
+        }
+        return paths;
+    }
+
+    /**
+    Retrieves the grid layout of this world's rooms, working it out the first time it is needed.
+    Returns:
+    the shared layout
+    */
+    public synchronized MapLayout getLayout(){
+        if(layout == null){
+            layout = new MapLayout(this);
+        }
+        return layout;
+    }
+
+    /**
+    Retrieves the number of rooms in the graph.
+    Returns:
+    the room count
+    */
+    public int getRoomCount(){
+        return targets.length / DIRECTIONS;
+    }
+
+    /**
+    Retrieves the number of a room.
+    Parameters:
+    roomId - the ID of the room
+    Returns:
+    the room's number, or -1 if the world has no such room
+    */
+    public int getRoomNumber(String roomId){
+        return rooms.getRoomNumber(roomId);
+    }
+
+    /**
+    Retrieves the world's shared definition of a room.
+    Parameters:
+    room - the room's number
+    Returns:
+    the shared room
+    */
+    public Room getRoom(int room){
+        return rooms.getRoom(room);
+    }
+}
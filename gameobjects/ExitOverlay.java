@@ -0,0 +1,113 @@
+package gameobjects;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * One game's visible exits, for the rooms where they differ from the world's {@code ExitGraph}.
+ *
+ * <p>
+ * A game's {@code Map} keeps an overlay once one of its own rooms has an exit hidden or revealed, and updates only
+ * that room's entry when it happens, so route searches see the game's exits without checking every room the game
+ * has copied. Besides where each replaced room's exits lead, the overlay keeps the exits of those rooms grouped by
+ * the room they lead to, for searches that walk the exits backwards.
+ * </p>
+ */
+class ExitOverlay {
+
+    private static final int DIRECTIONS = Direction.values().length;
+
+    private ExitGraph exits;
+    private HashMap<Integer, int[]> targets; //room -> where each visible exit leads, or -1, by direction ordinal
+    private HashMap<Integer, int[]> incoming; //room -> room * DIRECTIONS + direction of each replaced exit into it
+
+    /**
+    Creates an overlay that replaces no rooms.
+    Parameters:
+    exits - the world's exit graph
+    */
+    ExitOverlay(ExitGraph exits){
+        this.exits = exits;
+        this.targets = new HashMap<>();
+        this.incoming = new HashMap<>();
+    }
+
+    /**
+    Records a game's own copy of a room after one of its exits is hidden or revealed.
+    Parameters:
+    room - the room's number in the exit graph
+    copy - the game's copy of the room
+    */
+    void update(int room, Room copy){
+        int[] own = new int[DIRECTIONS];
+        boolean differs = false;
+        for(int d = 0; d < DIRECTIONS; d++){
+            Exit exit = copy.getExitByName(Direction.fromOrdinal(d).getWord());
+            own[d] = exit == null || exit.getHidden() ? -1 : exits.getRoomNumber(exit.getNextRoom());
+            differs |= own[d] != Math.max(-1, exits.visibleTarget(room, d));
+        }
+        if(differs){
+            targets.put(room, own);
+        } else{
+            targets.remove(room);
+        }
+
+        //few rooms are ever replaced, so the reverse index is rebuilt from all of them
+        incoming.clear();
+        for(java.util.Map.Entry<Integer, int[]> entry : targets.entrySet()){
+            for(int d = 0; d < DIRECTIONS; d++){
+                int target = entry.getValue()[d];
+                if(target >= 0){
+                    int[] into = incoming.get(target);
+                    into = into == null ? new int[1] : Arrays.copyOf(into, into.length + 1);
+                    into[into.length - 1] = entry.getKey() * DIRECTIONS + d;
+                    incoming.put(target, into);
+                }
+            }
+        }
+    }
+
+    /**
+    Checks whether every room's exits are as the world loaded them.
+    Returns:
+    true if the overlay replaces no rooms
+    */
+    boolean isEmpty(){
+        return targets.isEmpty();
+    }
+
+    /**
+    Checks whether the game's own exits replace a room's exits in the graph.
+    Parameters:
+    room - the room's number
+    Returns:
+    true if the room's exits come from the overlay
+    */
+    boolean replaces(int room){
+        return targets.containsKey(room);
+    }
+
+    /**
+    Retrieves where a visible exit leads in the game.
+    Parameters:
+    room - the number of the room the exit is in
+    direction - the direction's ordinal
+    Returns:
+    the target room's number, or a negative number if the game has no visible exit that way
+    */
+    int target(int room, int direction){
+        int[] own = targets.get(room);
+        return own != null ? own[direction] : exits.visibleTarget(room, direction);
+    }
+
+    /**
+    Retrieves the visible exits of the replaced rooms that lead into a room.
+    Parameters:
+    room - the room's number
+    Returns:
+    room * DIRECTIONS + direction of each such exit, or null if there are none
+    */
+    int[] incoming(int room){
+        return incoming.get(room);
+    }
+}
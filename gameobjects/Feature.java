@@ -28,6 +28,15 @@ public class Feature extends GameObject {
     public Feature() {
     }
 
+    /**
+    Creates a copy of this feature for a single game session. The copy shares this feature's strings.
+    Returns:
+    a new Feature with the same attributes
+    */
+    public Feature copy(){
+        return new Feature(id, name, description, hidden);
+    }
+
     /**
      * Returns a string representation of the feature by calling the superclass {@code GameObject}'s
      * {@code toString} method.
@@ -14,6 +14,8 @@ public abstract class GameObject {
     protected boolean hidden;
     public String id;
     protected String name;
+    ObjectIndex<?> owner; //the room index holding this object, told when it is hidden, revealed or described differently
+    int slot; //this object's position in owner
 
     /**
     Constructs a new GameObject with the specified attributes.
@@ -71,6 +73,9 @@ public abstract class GameObject {
     */
     public void setHidden(boolean hidden){
         this.hidden = hidden;
+        if(owner != null){
+            owner.hiddenChanged(this);
+        }
     }
 
     /**
@@ -89,6 +94,9 @@ public abstract class GameObject {
     */
     public void setDescription(String description){
         this.description = description;
+        if(owner != null){
+            owner.descriptionChanged();
+        }
     }
 
     /**
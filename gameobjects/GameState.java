@@ -1,5 +1,8 @@
 package gameobjects;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+
 /**
  * Represents the current state of the game, including the map and the player.
  *
@@ -12,6 +15,11 @@ public class GameState {
 
     private Map map;
     private Player player;
+    private ObjectLocations locations; //created on first use
+    private ObjectResolver resolver; //created on first use
+    private ArrayList<Objective> objectives; //the world's objectives, in file order
+    private UseRules useRules; //the world's use rules and prototypes
+    private BitSet usedRules; //numbers of the rules this game has fired
     /**
     Constructs a new GameState with the specified map and player.
     Parameters:
@@ -19,12 +27,80 @@ public class GameState {
     player - the player in the game
     */
     public GameState(Map map, Player player){
+        this();
         this.map = map;
         this.player = player;
     }
 
     ///Default constructor for GameState.
     public GameState(){
+        this.objectives = new ArrayList<>(0);
+        this.useRules = new UseRules();
+        this.usedRules = new BitSet();
+    }
+
+    /**
+    Creates the state for a new game in a world with objectives, which the player starts working towards, and use rules.
+    Parameters:
+    map - the map representing the game world
+    player - the player in the game
+    objectives - the world's objectives
+    useRules - the world's use rules, shared with every other game in the world
+    */
+    public GameState(Map map, Player player, ArrayList<Objective> objectives, UseRules useRules){
+        this.map = map;
+        this.player = player;
+        this.objectives = objectives;
+        this.useRules = useRules;
+        this.usedRules = new BitSet();
+        player.setObjectives(objectives);
+    }
+
+    /**
+    Retrieves the use rules of the world this game is played in.
+    Returns:
+    the world's use rules and prototypes, which must not be changed once games are played
+    */
+    public UseRules getUseRules(){
+        return useRules;
+    }
+
+    /**
+    Checks whether this game has already fired a use rule.
+    Parameters:
+    rule - the rule
+    Returns:
+    true if the rule has fired
+    */
+    public boolean isUsed(UseRule rule){
+        return usedRules.get(rule.getNumber());
+    }
+
+    /**
+    Records that this game has fired a use rule.
+    Parameters:
+    rule - the rule
+    */
+    public void setUsed(UseRule rule){
+        usedRules.set(rule.getNumber());
+    }
+
+    /**
+    Retrieves the objectives of the world this game is played in.
+    Returns:
+    the objectives, in the order the world declares them; the list must not be changed directly
+    */
+    public ArrayList<Objective> getObjectives(){
+        return objectives;
+    }
+
+    /**
+    Adds an objective, as read from a world file.
+    Parameters:
+    objective - the objective to add
+    */
+    public void addObjective(Objective objective){
+        objectives.add(objective);
     }
 
     /**
@@ -45,6 +121,30 @@ public class GameState {
         return this.player;
     }
 
+    /**
+    Retrieves where this game's objects are, starting from where the world was loaded the first time it is asked for.
+    Returns:
+    the game's object locations
+    */
+    public ObjectLocations getLocations(){
+        if(locations == null){
+            locations = new ObjectLocations(map.getObjectDirectory());
+        }
+        return locations;
+    }
+
+    /**
+    Retrieves the resolver every command uses to find the objects the player names.
+    Returns:
+    the game's object resolver
+    */
+    public ObjectResolver getResolver(){
+        if(resolver == null){
+            resolver = new ObjectResolver(this);
+        }
+        return resolver;
+    }
+
     public void setPlayer(Player player) {
         this.player = player;
     }
@@ -0,0 +1,187 @@
+package gameobjects;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+
+/**
+ * The objects of one kind a player carries, indexed by name and ID ignoring case, with identical objects stacked.
+ *
+ * <p>
+ * Objects with the same ID are identical, so they share one stack and count as a quantity of that object.
+ * Stacks keep the order in which the player first picked each one up, which is the order they are listed in.
+ * Adding, removing and finding an object are hash lookups however much the player carries; when several stacks
+ * share a name, lookups by name find the oldest, as a scan would.
+ * </p>
+ */
+public class Inventory<T extends GameObject> implements Iterable<T> {
+
+    private LinkedHashMap<String, ArrayList<T>> stacks; //ID (or name, for objects without one) -> the stack, in pickup order
+    private HashMap<String, LinkedHashMap<String, ArrayList<T>>> byName; //name -> stack key -> stack, oldest first
+    private int size;
+
+    ///Constructs a new, empty Inventory.
+    public Inventory(){
+        this.stacks = new LinkedHashMap<>();
+        this.byName = new HashMap<>();
+    }
+
+    /**
+    Adds an object, onto the stack of identical objects if there is one.
+    Parameters:
+    object - the object to add
+    */
+    public void add(T object){
+        String key = stackKey(object);
+        ArrayList<T> stack = stacks.get(key);
+        if(stack == null){
+            stack = new ArrayList<>(1);
+            stacks.put(key, stack);
+            if(object.getName() != null){
+                byName.computeIfAbsent(key(object.getName()), name -> new LinkedHashMap<>(2)).put(key, stack);
+            }
+        }
+        stack.add(object);
+        size++;
+    }
+
+    /**
+    Removes an object.
+    Parameters:
+    object - the object to remove
+    Returns:
+    true if the object was carried
+    */
+    public boolean remove(T object){
+        String key = stackKey(object);
+        ArrayList<T> stack = stacks.get(key);
+        if(stack == null){
+            return false;
+        }
+        int index = stack.lastIndexOf(object); //lookups hand out the top of the stack, so this is usually the last slot
+        if(index < 0){
+            return false;
+        }
+        stack.remove(index);
+        size--;
+        if(stack.isEmpty()){
+            stacks.remove(key);
+            unindexName(object.getName(), key);
+        }
+        return true;
+    }
+
+    /**
+    Finds an object by its name, ignoring case.
+    Parameters:
+    name - the name of the object
+    Returns:
+    one of the objects with that name, or null if none is carried
+    */
+    public T getByName(String name){
+        if(name == null){
+            return null;
+        }
+        LinkedHashMap<String, ArrayList<T>> named = byName.get(key(name));
+        return named != null ? top(named.values().iterator().next()) : null; //the oldest stack with the name
+    }
+
+    /**
+    Finds an object by its ID, ignoring case.
+    Parameters:
+    id - the ID of the object
+    Returns:
+    one of the objects with that ID, or null if none is carried
+    */
+    public T getById(String id){
+        if(id == null){
+            return null;
+        }
+        return top(stacks.get(key(id)));
+    }
+
+    /**
+    Checks whether an object with a name is carried, ignoring case.
+    Parameters:
+    name - the name of the object
+    Returns:
+    true if at least one is carried
+    */
+    public boolean containsName(String name){
+        return getByName(name) != null;
+    }
+
+    /**
+    Counts the objects stacked with an object.
+    Parameters:
+    object - the object
+    Returns:
+    how many identical objects are carried, including this one, or 0 if it is not carried
+    */
+    public int getQuantity(T object){
+        ArrayList<T> stack = stacks.get(stackKey(object));
+        return stack != null ? stack.size() : 0;
+    }
+
+    /**
+    Retrieves the number of objects carried, counting every object in each stack.
+    Returns:
+    the number of objects
+    */
+    public int size(){
+        return size;
+    }
+
+    /**
+    Checks whether nothing is carried.
+    Returns:
+    true if the inventory is empty
+    */
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    /**
+    Iterates over the stacks in the order they were first picked up, giving one object from each.
+    Returns:
+    an iterator over one object per stack
+    */
+    public Iterator<T> iterator(){
+        Iterator<ArrayList<T>> each = stacks.values().iterator();
+        return new Iterator<T>() {
+            public boolean hasNext(){
+                return each.hasNext();
+            }
+
+            public T next(){
+                return each.next().get(0);
+            }
+        };
+    }
+
+    //after a stack empties, drops it from the stacks with its name, leaving the next oldest to be found first
+    private void unindexName(String name, String stackKey){
+        if(name == null){
+            return;
+        }
+        String key = key(name);
+        LinkedHashMap<String, ArrayList<T>> named = byName.get(key);
+        if(named != null && named.remove(stackKey) != null && named.isEmpty()){
+            byName.remove(key);
+        }
+    }
+
+    private T top(ArrayList<T> stack){
+        return stack != null ? stack.get(stack.size() - 1) : null;
+    }
+
+    private static String stackKey(GameObject object){
+        return key(object.getId() != null ? object.getId() : object.getName());
+    }
+
+    private static String key(String s){
+        return s != null ? s.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -25,6 +25,15 @@ public class Item extends GameObject {
         this.hidden = hidden;
     }
 
+    /**
+    Creates a copy of this item for a single game session. The copy shares this item's strings.
+    Returns:
+    a new Item with the same attributes
+    */
+    public Item copy(){
+        return new Item(id, name, description, hidden);
+    }
+
     /**
      * Returns a string representation of the item by calling the superclass's {@code toString} method.
      * Overrides: toString in class GameObject
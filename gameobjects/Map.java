@@ -1,6 +1,7 @@
 package gameobjects;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.io.*;
 import java.nio.file.*;
@@ -12,40 +13,71 @@ import utils.*;
  *
  * <p>
  * The map allows for navigation between rooms, adding new rooms, and managing the current room context.
+ * A map can be backed by a {@code WorldSource}: it then reads the source's shared rooms and keeps its own copy
+ * only of the rooms this game changes, which commands obtain through {@link #getCurrentRoomForUpdate()}.
+ * Rooms are indexed by ID and numbered in the order they were added, so finding a room takes the same time
+ * however large the world is.
  * </p>
  */
 public class Map {
 
     //initialise rooms, currentRoom and map
-    private ArrayList<Room> rooms;
+    private ArrayList<Room> rooms; //rooms owned by this map; for a map backed by a source, the rooms this game has changed
+    private HashMap<String, Integer> roomNumbers; //room ID to position in rooms; the first room with an ID wins
     private Room currentRoom;
-    private HashMap<String, String> map;
+    private WorldSource source;
+    private ExitGraph exits; //the source's exit graph, or null
+    private int currentRoomNumber = -1; //the current room's number in the exit graph
+    private BitSet ownedRooms; //exit graph numbers of the rooms this game has its own copy of
+    private ExitOverlay overlay; //this game's visible exits where they differ from the exit graph, or null while none do
+    private MapView view; //this game's drawing of the map, or null until a standalone map is first displayed
 
     ///Constructs a new, empty Map.
     public Map(){
-        this.rooms = new ArrayList<>(); //instantiates room objects in an array
-        this.map = new HashMap<>(); //instantiates map in a hashmap
-
-        //creates 2x5 map
-        for(int x = 0; x < 2; x++){
-            for(int y = 0; y < 5; y++){
-                String key = x + "," + y; //sets key as coordinates
-                map.put(key, "□"); //displays rooms as boxes
-            }
+        this(10);
+    }
+
+    /**
+    Constructs a new, empty Map sized for a number of rooms, so that loading a large world does not regrow it.
+    Parameters:
+    expectedRooms - the number of rooms the map is expected to hold
+    */
+    public Map(int expectedRooms){
+        this.rooms = new ArrayList<>(expectedRooms); //instantiates room objects in an array
+        this.roomNumbers = new HashMap<>(expectedRooms * 4 / 3 + 1); //sized so loading never rehashes
+    }
+
+    /**
+    Constructs a new Map for one game, backed by the shared rooms of a world.
+    Parameters:
+    source - the world the game is played in
+    */
+    public Map(WorldSource source){
+        this();
+        this.source = source;
+        this.exits = source.getExitGraph();
+        this.ownedRooms = new BitSet();
+        if(exits != null){
+            this.view = new MapView(exits);
         }
     }
 
-    //displays map
+    /**
+    Draws the part of the map around the current room, laid out from the directions of the exits.
+    A map backed by a world without an exit graph, such as one read on demand, cannot be drawn.
+    Returns:
+    the drawing, marking the current room and the rooms visited, or a message saying the map is not available
+    */
     public String display(){
-        //loops through 2x5 map
-        for(int x = 0; x < 2; x++){
-            for(int y = 0; y < 5; y++){
-                String key = x + "," + y;
-                System.out.print(map.get(key) + " "); //gets the string at the key from the map and prints it with a space
+        if(view == null){
+            if(source != null || currentRoom == null){
+                return "The map is not available.\n";
             }
-            System.out.println(); //prints a line
+            //a standalone map is laid out from its own rooms, numbered as in getRooms, and visits count from now on
+            view = new MapView(new ExitGraph(this));
+            view.enter(getRoomNumber(currentRoom.getId()));
         }
-        return ""; //return empty string
+        return view.render();
     }
 
     /**
@@ -57,12 +89,99 @@ public class Map {
         return this.currentRoom;
     }
 
+    /**
+    Retrieves the current room so that it can be changed, first replacing a shared room with this game's own copy of it.
+    Commands must use this, rather than getCurrentRoom, before changing the room or anything in it.
+    Returns:
+    the current room, owned by this map
+    */
+    public Room getCurrentRoomForUpdate(){
+        if(currentRoom != null && currentRoom.isShared()){
+            currentRoom = getRoomForUpdate(currentRoom.getId());
+        }
+        return currentRoom;
+    }
+
+    /**
+    Retrieves a room so that it can be changed, first copying it from the world if this game has not changed it yet.
+    Parameters:
+    roomId - the ID of the room
+    Returns:
+    the room owned by this map, or null if there is no such room
+    */
+    public Room getRoomForUpdate(String roomId){
+        Room room = getRoom(roomId);
+        if(room != null && room.isShared()){
+            room = source.copyRoom(roomId);
+            addRoom(room);
+            if(exits != null){
+                int number = exits.getRoomNumber(roomId);
+                if(number >= 0){
+                    ownedRooms.set(number);
+                    room.watchExits(this);
+                }
+            }
+        }
+        return room;
+    }
+
+    /**
+    Retrieves a room by its ID. For a map backed by a world, rooms this game has not changed are the shared ones and must not be changed.
+    Parameters:
+    roomId - the ID of the room
+    Returns:
+    the room, or null if there is no such room
+    */
+    public Room getRoom(String roomId){
+        Integer number = roomNumbers.get(roomId);
+        if(number != null){
+            return rooms.get(number);
+        }
+        if(source != null){
+            return source.getSharedRoom(roomId);
+        }
+        return null;
+    }
+
+    /**
+    Retrieves the number of a room owned by this map, which stays the same for as long as the map exists.
+    Parameters:
+    roomId - the ID of the room
+    Returns:
+    the room's position in {@link #getRooms()}, or -1 if this map does not own a room with that ID
+    */
+    public int getRoomNumber(String roomId){
+        Integer number = roomNumbers.get(roomId);
+        return number != null ? number : -1;
+    }
+
+    /**
+    Retrieves a room owned by this map by its number.
+    Parameters:
+    number - the room's number, as given by getRoomNumber
+    Returns:
+    the room
+    */
+    public Room getRoom(int number){
+        return rooms.get(number);
+    }
+
+    /**
+    Retrieves the rooms owned by this map. The list must not be changed directly; rooms are added with addRoom so that they are indexed.
+    Returns:
+    every room of a standalone map, or the rooms this game has changed for a map backed by a world
+    */
+    public ArrayList<Room> getRooms(){
+        return rooms;
+    }
+
     /*
     Adds a room to the map.
     Parameters:
     room - the room to add to the map
     */
     public void addRoom(Room room){
+        roomNumbers.putIfAbsent(room.getId(), rooms.size());
         rooms.add(room);
     }
 
@@ -72,15 +191,97 @@ public class Map {
     roomId - the ID of the room to set as the current room
     */
     public void setCurrentRoom(String roomId){
-        for(Room room : rooms){
-            if(room.getId().equals(roomId)){
-                currentRoom = room;
-                return;
+        Room room = getRoom(roomId);
+        if(room != null){
+            currentRoom = room;
+            currentRoomNumber = exits != null ? exits.getRoomNumber(roomId) : -1;
+            int drawn = exits != null ? currentRoomNumber : getRoomNumber(roomId);
+            if(view != null && drawn >= 0){
+                view.enter(drawn);
             }
+            return;
         }
         System.out.println("No room with ID " + roomId);
     }
 
+    /**
+    Retrieves the compiled exits of the world this map is backed by.
+    Returns:
+    the exit graph, or null if the map has none
+    */
+    public ExitGraph getExitGraph(){
+        return exits;
+    }
+
+    /**
+    Retrieves where the objects of this map's world lie when it is loaded.
+    Returns:
+    the world's shared directory, a new directory of this map's own rooms for a standalone map, or null if the world has none
+    */
+    public ObjectDirectory getObjectDirectory(){
+        return source != null ? source.getObjectDirectory() : new ObjectDirectory(this);
+    }
+
+    /**
+    Retrieves the exit graph number of the current room.
+    Returns:
+    the number, or -1 if the map has no exit graph
+    */
+    public int getCurrentRoomNumber(){
+        return currentRoomNumber;
+    }
+
+    /**
+    Checks whether this game has its own copy of a room, whose exits may then differ from the exit graph.
+    Parameters:
+    number - the room's exit graph number
+    Returns:
+    true if the game has changed the room
+    */
+    public boolean ownsRoom(int number){
+        return ownedRooms.get(number);
+    }
+
+    /**
+    Retrieves this game's visible exits where they differ from the exit graph.
+    Returns:
+    the overlay, or null if every exit the game can see is as the world loaded it
+    */
+    ExitOverlay getExitOverlay(){
+        return overlay;
+    }
+
+    /**
+    Updates the overlay after an exit in one of this game's own rooms is hidden or revealed.
+    Parameters:
+    room - the game's copy of the room
+    */
+    void exitsChanged(Room room){
+        int number = exits.getRoomNumber(room.getId());
+        if(number < 0 || !ownedRooms.get(number)){
+            return;
+        }
+        if(overlay == null){
+            overlay = new ExitOverlay(exits);
+        }
+        overlay.update(number, room);
+        if(overlay.isEmpty()){
+            overlay = null;
+        }
+    }
+
+    /**
+    Sets the current room by its exit graph number.
+    Parameters:
+    number - the room's number in the exit graph
+    */
+    public void setCurrentRoom(int number){
+        Room room = exits.getRoom(number);
+        currentRoom = ownedRooms.get(number) ? getRoom(room.getId()) : room;
+        currentRoomNumber = number;
+        view.enter(number);
+    }
+
     /**
      * Returns a string representation of the map, including all rooms.
      *
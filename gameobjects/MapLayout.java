@@ -0,0 +1,182 @@
+package gameobjects;
+
+import java.util.HashMap;
+
+/**
+ * Grid coordinates for the rooms of a world, worked out from the directions of its exits.
+ *
+ * <p>
+ * Starting from the first room at (0, 0), a breadth-first walk places the room behind each exit one cell away
+ * in the exit's direction. Worlds are not always drawn consistently, so when that cell is already taken the room
+ * goes in the nearest free cell, and rooms that cannot be reached are laid out to the east of everything else.
+ * Hidden exits place rooms like any other but are never drawn as joins, so the map does not give them away.
+ * The cells are kept in tiles of primitive arrays, so a sparse layout of a large world costs memory only where
+ * there are rooms.
+ * </p>
+ */
+public class MapLayout {
+
+    private static final int DIRECTIONS = Direction.values().length;
+    private static final int TILE_BITS = 5; //tiles are 32 x 32 cells
+    private static final int TILE_SIZE = 1 << TILE_BITS;
+    private static final int NEARBY = 3; //how far from its cell a room may be moved before it goes east of everything
+
+    private ExitGraph exits;
+    private int[] roomX;
+    private int[] roomY;
+    private HashMap<Long, int[]> tiles; //tile -> room number + 1 for each cell, 0 where there is no room
+    private int minX;
+    private int maxX;
+    private int minY;
+    private int maxY;
+
+    /**
+    Lays out the rooms of a world.
+    Parameters:
+    exits - the world's exit graph
+    */
+    public MapLayout(ExitGraph exits){
+        this.exits = exits;
+        int rooms = exits.getRoomCount();
+        this.roomX = new int[rooms];
+        this.roomY = new int[rooms];
+        this.tiles = new HashMap<>();
+        boolean[] placed = new boolean[rooms];
+        int[] queue = new int[rooms];
+
+        for(int first = 0; first < rooms; first++){
+            if(placed[first]){
+                continue;
+            }
+            if(first == 0){
+                place(first, 0, 0, placed);
+            } else{
+                place(first, maxX + 2, minY, placed); //a part of the world no placed room leads to
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = first;
+            while(head < tail){
+                int room = queue[head++];
+                for(int d = 0; d < DIRECTIONS; d++){
+                    Direction direction = Direction.fromOrdinal(d);
+                    int target = exits.getTarget(room, direction);
+                    if(target < 0 || placed[target]){
+                        continue;
+                    }
+                    int x = roomX[room] + direction.getDx();
+                    int y = roomY[room] + direction.getDy();
+                    if(!placeNear(target, x, y, placed)){
+                        place(target, maxX + 2, y, placed);
+                    }
+                    queue[tail++] = target;
+                }
+            }
+        }
+    }
+
+    /**
+    Retrieves the room in a cell.
+    Parameters:
+    x - the cell's column, increasing to the east
+    y - the cell's row, increasing to the south
+    Returns:
+    the room's number, or -1 if the cell is empty
+    */
+    public int getRoomAt(int x, int y){
+        int[] tile = tiles.get(tileKey(x, y));
+        return tile != null ? tile[cellIndex(x, y)] - 1 : -1;
+    }
+
+    /**
+    Retrieves the column of a room.
+    Parameters:
+    room - the room's number
+    Returns:
+    the column
+    */
+    public int getX(int room){
+        return roomX[room];
+    }
+
+    /**
+    Retrieves the row of a room.
+    Parameters:
+    room - the room's number
+    Returns:
+    the row
+    */
+    public int getY(int room){
+        return roomY[room];
+    }
+
+    /**
+    Checks whether two rooms in neighbouring cells are joined by a visible exit in either direction.
+    Parameters:
+    from - the first room's number
+    direction - the direction from the first room to the second
+    to - the second room's number
+    Returns:
+    true if an exit joins them
+    */
+    public boolean isJoined(int from, Direction direction, int to){
+        return (exits.getTarget(from, direction) == to && !exits.isHidden(from, direction))
+                || (exits.getTarget(to, direction.opposite()) == from && !exits.isHidden(to, direction.opposite()));
+    }
+
+    public int getMinX(){
+        return minX;
+    }
+
+    public int getMaxX(){
+        return maxX;
+    }
+
+    public int getMinY(){
+        return minY;
+    }
+
+    public int getMaxY(){
+        return maxY;
+    }
+
+    //places a room in the free cell nearest to (x, y), looking at most NEARBY cells away
+    private boolean placeNear(int room, int x, int y, boolean[] placed){
+        for(int distance = 0; distance <= NEARBY; distance++){
+            for(int dy = -distance; dy <= distance; dy++){
+                for(int dx = -distance; dx <= distance; dx++){
+                    if(Math.max(Math.abs(dx), Math.abs(dy)) == distance && getRoomAt(x + dx, y + dy) < 0){
+                        place(room, x + dx, y + dy, placed);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void place(int room, int x, int y, boolean[] placed){
+        long key = tileKey(x, y);
+        int[] tile = tiles.get(key);
+        if(tile == null){
+            tile = new int[TILE_SIZE * TILE_SIZE];
+            tiles.put(key, tile);
+        }
+        tile[cellIndex(x, y)] = room + 1;
+        roomX[room] = x;
+        roomY[room] = y;
+        placed[room] = true;
+        minX = Math.min(minX, x);
+        maxX = Math.max(maxX, x);
+        minY = Math.min(minY, y);
+        maxY = Math.max(maxY, y);
+    }
+
+    private static long tileKey(int x, int y){
+        return ((long) (x >> TILE_BITS) << 32) | ((y >> TILE_BITS) & 0xffffffffL);
+    }
+
+    private static int cellIndex(int x, int y){
+        return ((y & (TILE_SIZE - 1)) << TILE_BITS) | (x & (TILE_SIZE - 1));
+    }
+}
@@ -0,0 +1,165 @@
+package gameobjects;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * One game's drawing of the world map: a viewport of the world's {@code MapLayout} around the player, with the
+ * current room and the rooms the player has visited marked.
+ *
+ * <p>
+ * The drawing is kept between calls. While the viewport stays where it is, only the cells of rooms that changed
+ * since the last drawing (the room the player left, the room they are in, and rooms visited in between) are drawn
+ * again; the viewport is redrawn in full only when the player walks far enough for it to move. The layout itself
+ * is worked out the first time any game draws the map, so games that never look at it do not pay for it.
+ * </p>
+ */
+public class MapView {
+
+    ///The most cells drawn across the viewport.
+    public static final int WIDTH = 11;
+    ///The most cells drawn down the viewport.
+    public static final int HEIGHT = 7;
+
+    ///The marks used for rooms, in the order current, visited, not visited.
+    public static final char CURRENT = '@';
+    public static final char VISITED = '■';
+    public static final char UNVISITED = '□';
+
+    private static final String LEGEND = CURRENT + " you are here  " + VISITED + " visited  " + UNVISITED + " not visited\n";
+
+    private static final int MOST_DIRTY = 64; //beyond this many changed rooms the viewport is simply redrawn
+
+    private ExitGraph exits;
+    private MapLayout layout; //the world's layout, fetched on the first drawing
+    private BitSet visited;
+    private int[] dirty; //rooms whose cells must be drawn again
+    private int dirtyCount;
+    private int current = -1;
+
+    private char[] drawing; //the viewport, one line per row of cells and one between rows for north/south exits
+    private int originX;
+    private int originY;
+    private int columns;
+    private int rows;
+    private boolean drawn;
+
+    /**
+    Creates an empty drawing of a world's map.
+    Parameters:
+    exits - the world's exit graph
+    */
+    public MapView(ExitGraph exits){
+        this.exits = exits;
+        this.visited = new BitSet();
+        this.dirty = new int[8];
+    }
+
+    /**
+    Records that the player has entered a room.
+    Parameters:
+    room - the room's number
+    */
+    public void enter(int room){
+        if(current >= 0){
+            markDirty(current);
+        }
+        current = room;
+        visited.set(room);
+        markDirty(room);
+    }
+
+    /**
+    Draws the viewport around the current room.
+    Returns:
+    the map, one line per row, followed by a legend
+    */
+    public String render(){
+        if(current < 0){
+            return "";
+        }
+        if(layout == null){
+            layout = exits.getLayout();
+        }
+        int columns = Math.min(WIDTH, layout.getMaxX() - layout.getMinX() + 1);
+        int rows = Math.min(HEIGHT, layout.getMaxY() - layout.getMinY() + 1);
+        int originX = clamp(layout.getX(current) - columns / 2, layout.getMinX(), layout.getMaxX() - columns + 1);
+        int originY = clamp(layout.getY(current) - rows / 2, layout.getMinY(), layout.getMaxY() - rows + 1);
+
+        if(!drawn || originX != this.originX || originY != this.originY || columns != this.columns || rows != this.rows){
+            this.originX = originX;
+            this.originY = originY;
+            this.columns = columns;
+            this.rows = rows;
+            drawAll();
+        } else{
+            for(int i = 0; i < dirtyCount; i++){
+                int room = dirty[i];
+                int x = layout.getX(room) - originX;
+                int y = layout.getY(room) - originY;
+                if(x >= 0 && x < columns && y >= 0 && y < rows){
+                    drawing[position(x, y)] = mark(room);
+                }
+            }
+        }
+        dirtyCount = 0;
+        return new String(drawing) + LEGEND;
+    }
+
+    private void drawAll(){
+        int lineLength = columns * 2; //cells and connectors, ending in a newline
+        drawing = new char[lineLength * (rows * 2 - 1)];
+        Arrays.fill(drawing, ' ');
+        for(int line = 0; line < rows * 2 - 1; line++){
+            drawing[line * lineLength + lineLength - 1] = '\n';
+        }
+        for(int y = 0; y < rows; y++){
+            for(int x = 0; x < columns; x++){
+                int room = layout.getRoomAt(originX + x, originY + y);
+                if(room < 0){
+                    continue;
+                }
+                drawing[position(x, y)] = mark(room);
+                if(x + 1 < columns){
+                    int east = layout.getRoomAt(originX + x + 1, originY + y);
+                    if(east >= 0 && layout.isJoined(room, Direction.EAST, east)){
+                        drawing[position(x, y) + 1] = '-';
+                    }
+                }
+                if(y + 1 < rows){
+                    int south = layout.getRoomAt(originX + x, originY + y + 1);
+                    if(south >= 0 && layout.isJoined(room, Direction.SOUTH, south)){
+                        drawing[position(x, y) + lineLength] = '|';
+                    }
+                }
+            }
+        }
+        drawn = true;
+    }
+
+    private char mark(int room){
+        if(room == current){
+            return CURRENT;
+        }
+        return visited.get(room) ? VISITED : UNVISITED;
+    }
+
+    private int position(int x, int y){
+        return y * 2 * (columns * 2) + x * 2;
+    }
+
+    private void markDirty(int room){
+        if(dirtyCount == MOST_DIRTY){
+            drawn = false;
+            dirtyCount = 0;
+        }
+        if(dirtyCount == dirty.length){
+            dirty = Arrays.copyOf(dirty, dirtyCount * 2);
+        }
+        dirty[dirtyCount++] = room;
+    }
+
+    private static int clamp(int value, int min, int max){
+        return Math.max(min, Math.min(value, max));
+    }
+}
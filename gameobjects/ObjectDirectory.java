@@ -0,0 +1,77 @@
+package gameobjects;
+
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * Where every item, piece of equipment and feature of a world lies when the world is loaded, by ID and by name.
+ *
+ * <p>
+ * The directory is built once per world by walking its rooms and is then shared by every game in the world. IDs
+ * and names are matched ignoring case; when several objects share one, the first found in room order wins, as
+ * lookups within a room do. Games record where they have moved objects since in their own
+ * {@code ObjectLocations}, which fall back on this directory for everything they have not touched.
+ * </p>
+ */
+public class ObjectDirectory {
+
+    private HashMap<String, String> roomIds; //object ID -> ID of the room it lies in
+    private HashMap<String, String> ids; //object name -> object ID
+
+    /**
+    Indexes the objects of every room in a map.
+    Parameters:
+    rooms - the rooms to index
+    */
+    public ObjectDirectory(Map rooms){
+        int count = rooms.getRooms().size();
+        this.roomIds = new HashMap<>(count * 4 / 3 + 1);
+        this.ids = new HashMap<>(count * 4 / 3 + 1);
+        for(Room room : rooms.getRooms()){
+            for(GameObject object : room.getAll()){
+                if(object instanceof Exit || object.getId() == null){
+                    continue;
+                }
+                roomIds.putIfAbsent(key(object.getId()), room.getId());
+                if(object.getName() != null){
+                    ids.putIfAbsent(key(object.getName()), object.getId());
+                }
+            }
+        }
+    }
+
+    /**
+    Finds the room an object lies in when the world is loaded.
+    Parameters:
+    id - the object's ID
+    Returns:
+    the room's ID, or null if no room holds an object with that ID
+    */
+    public String getRoomId(String id){
+        return id != null ? roomIds.get(key(id)) : null;
+    }
+
+    /**
+    Finds the ID of an object by its name.
+    Parameters:
+    name - the object's name
+    Returns:
+    the ID, or null if no room holds an object with that name
+    */
+    public String findId(String name){
+        return name != null ? ids.get(key(name)) : null;
+    }
+
+    /**
+    Retrieves the number of objects indexed.
+    Returns:
+    the object count
+    */
+    public int size(){
+        return roomIds.size();
+    }
+
+    static String key(String s){
+        return s.toLowerCase(Locale.ROOT);
+    }
+}
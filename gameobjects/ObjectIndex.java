@@ -0,0 +1,223 @@
+package gameobjects;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * The objects of one kind in a room, in the order they were added, indexed by ID and by name ignoring case.
+ *
+ * <p>
+ * Most rooms hold a handful of objects of each kind, which are quicker to scan than to hash, so the indexes are
+ * only built once a kind has more than {@link #INDEX_THRESHOLD} objects. When several objects share a name or ID,
+ * lookups find the one added first, as a scan of the list would.
+ * </p>
+ *
+ * <p>
+ * Which objects are hidden is kept as a bitset indexed by each object's slot in the list, so the visible objects are
+ * found by scanning bits rather than asking each object. An object knows the index holding it, and hiding or
+ * revealing it flips its bit and tells the room it has changed.
+ * </p>
+ */
+class ObjectIndex<T extends GameObject> {
+
+    ///The number of objects up to which lookups scan the list instead of keeping indexes.
+    static final int INDEX_THRESHOLD = 8;
+
+    private ArrayList<T> objects;
+    private HashMap<String, T> byId; //null until there are more than INDEX_THRESHOLD objects
+    private HashMap<String, T> byName;
+    private BitSet hidden; //slot -> whether the object in it is hidden
+    private Room room; //the room holding these objects
+
+    ObjectIndex(Room room){
+        this.room = room;
+        this.objects = new ArrayList<>(4);
+        this.hidden = new BitSet();
+    }
+
+    /**
+    Adds an object after the existing ones.
+    Parameters:
+    object - the object to add
+    */
+    void add(T object){
+        object.owner = this;
+        object.slot = objects.size();
+        hidden.set(object.slot, object.getHidden());
+        objects.add(object);
+        if(byId != null){
+            index(object);
+        } else if(objects.size() > INDEX_THRESHOLD){
+            byId = new HashMap<>();
+            byName = new HashMap<>();
+            for(T each : objects){
+                index(each);
+            }
+        }
+    }
+
+    /**
+    Removes an object.
+    Parameters:
+    object - the object to remove
+    Returns:
+    true if the object was here
+    */
+    boolean remove(T object){
+        int slot = object.owner == this ? object.slot : objects.indexOf(object);
+        if(slot < 0 || slot >= objects.size() || objects.get(slot) != object){
+            return false;
+        }
+        objects.remove(slot);
+        object.owner = null;
+        //the objects after the removed one each move down a slot, and so do their bits
+        for(int i = slot; i < objects.size(); i++){
+            objects.get(i).slot = i;
+            hidden.set(i, hidden.get(i + 1));
+        }
+        hidden.clear(objects.size());
+        if(byId != null){
+            unindex(byId, key(object.getId()), object, true);
+            unindex(byName, key(object.getName()), object, false);
+        }
+        return true;
+    }
+
+    /**
+    Finds an object by its ID, ignoring case.
+    Parameters:
+    id - the ID of the object
+    Returns:
+    the object, or null if there is none with that ID
+    */
+    T getById(String id){
+        if(byId != null){
+            return id != null ? byId.get(key(id)) : null;
+        }
+        for(T object : objects){
+            if(object.getId().equalsIgnoreCase(id)){
+                return object;
+            }
+        }
+        return null;
+    }
+
+    /**
+    Finds an object by its name, ignoring case.
+    Parameters:
+    name - the name of the object
+    Returns:
+    the object, or null if there is none with that name
+    */
+    T getByName(String name){
+        if(byName != null){
+            return name != null ? byName.get(key(name)) : null;
+        }
+        for(T object : objects){
+            if(object.getName().equalsIgnoreCase(name)){
+                return object;
+            }
+        }
+        return null;
+    }
+
+    /**
+    Finds the first visible object with a name, ignoring case, passing over hidden objects that share it.
+    Parameters:
+    name - the name of the object
+    Returns:
+    the object, or null if there is no visible object with that name
+    */
+    T getVisibleByName(String name){
+        if(name == null){
+            return null;
+        }
+        int size = objects.size();
+        int slot = 0;
+        if(byName != null){
+            T first = byName.get(key(name));
+            if(first == null){
+                return null;
+            }
+            slot = first.slot; //no object before the first with the name can match
+        }
+        for(slot = hidden.nextClearBit(slot); slot < size; slot = hidden.nextClearBit(slot + 1)){
+            T object = objects.get(slot);
+            if(object.getName().equalsIgnoreCase(name)){
+                return object;
+            }
+        }
+        return null;
+    }
+
+    /**
+    Records that an object held here has been hidden or revealed.
+    Parameters:
+    object - the object
+    */
+    void hiddenChanged(GameObject object){
+        hidden.set(object.slot, object.getHidden());
+        room.changed();
+        if(object instanceof Exit){
+            room.exitHiddenChanged();
+        }
+    }
+
+    /**
+    Records that the description of an object held here has changed.
+    */
+    void descriptionChanged(){
+        room.changed();
+    }
+
+    /**
+    Appends the description of each visible object, one per line, in the order they were added.
+    Parameters:
+    out - the builder to append to
+    */
+    void appendVisibleDescriptions(StringBuilder out){
+        int size = objects.size();
+        for(int slot = hidden.nextClearBit(0); slot < size; slot = hidden.nextClearBit(slot + 1)){
+            out.append(objects.get(slot).getDescription()).append('\n');
+        }
+    }
+
+    /**
+    Retrieves the objects in the order they were added. The list must not be changed directly.
+    Returns:
+    the objects
+    */
+    ArrayList<T> list(){
+        return objects;
+    }
+
+    private void index(T object){
+        if(object.getId() != null){
+            byId.putIfAbsent(key(object.getId()), object);
+        }
+        if(object.getName() != null){
+            byName.putIfAbsent(key(object.getName()), object);
+        }
+    }
+
+    //after removing an object, points its key at the next object with the same key, if any
+    private void unindex(HashMap<String, T> index, String key, T object, boolean isId){
+        if(key == null || index.get(key) != object){
+            return;
+        }
+        index.remove(key);
+        for(T each : objects){
+            String eachKey = key(isId ? each.getId() : each.getName());
+            if(key.equals(eachKey)){
+                index.put(key, each);
+                return;
+            }
+        }
+    }
+
+    private static String key(String s){
+        return s != null ? s.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,159 @@
+package gameobjects;
+
+import java.util.HashMap;
+
+/**
+ * Where each object is in one game: in a room, carried by the player, or gone, for example used up in a combination.
+ *
+ * <p>
+ * Only the objects this game has moved are recorded here; everything else is where the world's shared
+ * {@code ObjectDirectory} says it was loaded. Commands that move objects between rooms and the player report the
+ * move, so finding any object takes two hash lookups however large the world is. A world read on demand has no
+ * directory, so in it only the objects this game has moved can be found.
+ * </p>
+ */
+public class ObjectLocations {
+
+    //stand-ins for a room ID in moved, compared by identity
+    private static final String CARRIED = new String("carried");
+    private static final String GONE = new String("gone");
+
+    private ObjectDirectory directory; //where objects were loaded, or null
+    private HashMap<String, String> moved; //object ID -> room ID, CARRIED or GONE
+    private HashMap<String, String> ids; //name -> ID, for objects this game has moved or made
+
+    /**
+    Creates the locations for a new game, with every object where the world was loaded.
+    Parameters:
+    directory - the world's object directory, or null if the world has none
+    */
+    public ObjectLocations(ObjectDirectory directory){
+        this.directory = directory;
+        this.moved = new HashMap<>();
+        this.ids = new HashMap<>();
+    }
+
+    /**
+    Finds the room an object lies in.
+    Parameters:
+    id - the object's ID
+    Returns:
+    the room's ID, or null if the object is carried, gone or unknown
+    */
+    public String getRoomId(String id){
+        String place = place(id);
+        return place != CARRIED && place != GONE ? place : null;
+    }
+
+    /**
+    Checks whether this game knows where an object is, which it does for every object of a world with a directory.
+    Parameters:
+    id - the object's ID
+    Returns:
+    true if the object is known to be in a room, carried or gone
+    */
+    public boolean isKnown(String id){
+        return place(id) != null;
+    }
+
+    /**
+    Checks whether the player is carrying an object.
+    Parameters:
+    id - the object's ID
+    Returns:
+    true if the object is carried
+    */
+    public boolean isCarried(String id){
+        return place(id) == CARRIED;
+    }
+
+    /**
+    Checks whether an object is still somewhere in the game.
+    Parameters:
+    id - the object's ID
+    Returns:
+    true if the object is in a room or carried
+    */
+    public boolean exists(String id){
+        String place = place(id);
+        return place != null && place != GONE;
+    }
+
+    /**
+    Finds the ID of an object by its name, ignoring case.
+    Parameters:
+    name - the object's name
+    Returns:
+    the ID, or null if there is no object with that name
+    */
+    public String findId(String name){
+        if(name == null){
+            return null;
+        }
+        String id = ids.get(ObjectDirectory.key(name));
+        if(id == null && directory != null){
+            id = directory.findId(name);
+        }
+        return id;
+    }
+
+    /**
+    Records that an object has been put in a room.
+    Parameters:
+    object - the object
+    roomId - the ID of the room
+    */
+    public void movedToRoom(GameObject object, String roomId){
+        record(object, roomId);
+    }
+
+    /**
+    Records that the player has taken or been given an object.
+    Parameters:
+    object - the object
+    */
+    public void movedToPlayer(GameObject object){
+        record(object, CARRIED);
+    }
+
+    /**
+    Records that an object has left the game.
+    Parameters:
+    object - the object
+    */
+    public void removed(GameObject object){
+        record(object, GONE);
+    }
+
+    /**
+    Retrieves the number of objects this game has moved, made or removed.
+    Returns:
+    the number of objects recorded
+    */
+    public int getMovedCount(){
+        return moved.size();
+    }
+
+    private void record(GameObject object, String place){
+        if(object.getId() == null){
+            return;
+        }
+        String id = ObjectDirectory.key(object.getId());
+        moved.put(id, place);
+        if(object.getName() != null){
+            ids.putIfAbsent(ObjectDirectory.key(object.getName()), object.getId());
+        }
+    }
+
+    //the room ID, CARRIED or GONE, or null if the object is unknown
+    private String place(String id){
+        if(id == null){
+            return null;
+        }
+        String place = moved.get(ObjectDirectory.key(id));
+        if(place == null && directory != null){
+            place = directory.getRoomId(id);
+        }
+        return place;
+    }
+}
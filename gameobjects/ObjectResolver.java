@@ -0,0 +1,66 @@
+package gameobjects;
+
+/**
+ * Finds the object a player means by a name: one of the visible objects in the room they are in, or one they carry.
+ *
+ * <p>
+ * Each game has one resolver, shared by every command, so every verb finds objects the same way. It keeps no
+ * indexes of its own: the room's objects of each kind and the player's inventories are already indexed by name
+ * ignoring case, so a noun costs at most one lookup per kind. Where names are shared, features come before items,
+ * items before equipment and equipment before exits; within one kind the earliest visible object with the name is
+ * the one found, so a hidden object never hides a visible one that shares its name.
+ * </p>
+ */
+public class ObjectResolver {
+
+    private GameState gameState;
+
+    /**
+    Creates a resolver for a game.
+    Parameters:
+    gameState - the game whose room and player names are resolved in
+    */
+    public ObjectResolver(GameState gameState){
+        this.gameState = gameState;
+    }
+
+    /**
+    Finds a visible object in the current room by its name, ignoring case.
+    Parameters:
+    name - the name of the object
+    Returns:
+    the feature, item, equipment or exit, or null if the room shows none with that name
+    */
+    public GameObject findInRoom(String name){
+        Room room = gameState.getMap().getCurrentRoom();
+        if(name == null || room == null){
+            return null;
+        }
+        return room.getVisibleByName(name);
+    }
+
+    /**
+    Finds an object the player carries by its name, ignoring case.
+    Parameters:
+    name - the name of the object
+    Returns:
+    the item or equipment, or null if the player carries none with that name
+    */
+    public GameObject findCarried(String name){
+        Player player = gameState.getPlayer();
+        GameObject found = player.getInventory().getByName(name);
+        return found != null ? found : player.getEquipment().getByName(name);
+    }
+
+    /**
+    Finds an object by its name, ignoring case, looking first in the current room and then in what the player carries.
+    Parameters:
+    name - the name of the object
+    Returns:
+    the object, or null if the player can see or carries none with that name
+    */
+    public GameObject find(String name){
+        GameObject found = findInRoom(name);
+        return found != null ? found : findCarried(name);
+    }
+}
@@ -0,0 +1,75 @@
+package gameobjects;
+
+/**
+ * A goal declared by a world: a set of objects the player must carry at the same time, and the message shown
+ * when they first do.
+ *
+ * <p>
+ * Objectives come from {@code objective:} records in the world file and are shared by every game in the world;
+ * each player's progress is kept by their own {@code ObjectiveTracker}.
+ * </p>
+ */
+public class Objective {
+
+    ///The most objects one objective can require, so that a player's progress fits in a single long.
+    public static final int MOST_REQUIREMENTS = 64;
+
+    private String id;
+    private String[] requiredIds;
+    private String message;
+
+    /**
+    Creates an objective.
+    Parameters:
+    id - the objective's ID
+    requiredIds - the IDs of the objects the player must carry
+    message - the message shown when the objective is completed
+    Throws:
+    IllegalArgumentException - if no objects or more than MOST_REQUIREMENTS objects are required
+    */
+    public Objective(String id, String[] requiredIds, String message){
+        if(requiredIds.length == 0 || requiredIds.length > MOST_REQUIREMENTS){
+            throw new IllegalArgumentException("An objective must require between 1 and " + MOST_REQUIREMENTS + " objects");
+        }
+        this.id = id;
+        this.requiredIds = requiredIds.clone();
+        this.message = message;
+    }
+
+    public String getId(){
+        return id;
+    }
+
+    /**
+    Retrieves the number of objects the objective requires.
+    Returns:
+    the number of required objects
+    */
+    public int getRequirementCount(){
+        return requiredIds.length;
+    }
+
+    /**
+    Retrieves the ID of one required object.
+    Parameters:
+    index - the requirement's position, from 0
+    Returns:
+    the object's ID
+    */
+    public String getRequiredId(int index){
+        return requiredIds[index];
+    }
+
+    public String getMessage(){
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "Objective {" +
+                "id='" + id + '\'' +
+                ", requires=" + String.join(" ", requiredIds) +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,131 @@
+package gameobjects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One player's progress towards a world's objectives, updated as objects enter and leave their inventory.
+ *
+ * <p>
+ * Each objective's progress is a bitmask with one bit per required object, set while the player carries it, so an
+ * objective is complete when its mask is full and no inventory is ever scanned. The first time an objective
+ * completes, its message is queued once; later losing and regaining the objects does not repeat it.
+ * </p>
+ */
+public class ObjectiveTracker {
+
+    private List<Objective> objectives;
+    private HashMap<String, int[]> watchers; //object ID -> objective * MOST_REQUIREMENTS + bit for each requirement it meets
+    private long[] held; //objective -> bits of the required objects carried
+    private long[] full; //objective -> bits of all its required objects
+    private BitSet completed;
+    private ArrayList<String> events; //messages of objectives completed since they were last taken
+
+    /**
+    Creates a tracker with no objects carried.
+    Parameters:
+    objectives - the world's objectives
+    */
+    public ObjectiveTracker(List<Objective> objectives){
+        this.objectives = objectives;
+        this.watchers = new HashMap<>();
+        this.held = new long[objectives.size()];
+        this.full = new long[objectives.size()];
+        this.completed = new BitSet(objectives.size());
+        this.events = new ArrayList<>(1);
+        for(int o = 0; o < objectives.size(); o++){
+            Objective objective = objectives.get(o);
+            for(int bit = 0; bit < objective.getRequirementCount(); bit++){
+                String key = key(objective.getRequiredId(bit));
+                int[] watching = watchers.get(key);
+                watching = watching == null ? new int[1] : Arrays.copyOf(watching, watching.length + 1);
+                watching[watching.length - 1] = o * Objective.MOST_REQUIREMENTS + bit;
+                watchers.put(key, watching);
+                full[o] |= 1L << bit;
+            }
+        }
+    }
+
+    /**
+    Records whether the player now carries an object, completing any objective it was the last requirement of.
+    Parameters:
+    id - the object's ID
+    carried - true if at least one such object is carried
+    */
+    public void update(String id, boolean carried){
+        if(id == null){
+            return;
+        }
+        int[] watching = watchers.get(key(id));
+        if(watching == null){
+            return;
+        }
+        for(int requirement : watching){
+            int o = requirement / Objective.MOST_REQUIREMENTS;
+            long bit = 1L << (requirement % Objective.MOST_REQUIREMENTS);
+            if(carried){
+                held[o] |= bit;
+                if(held[o] == full[o] && !completed.get(o)){
+                    completed.set(o);
+                    events.add(objectives.get(o).getMessage());
+                }
+            } else{
+                held[o] &= ~bit;
+            }
+        }
+    }
+
+    /**
+    Checks whether an objective has been completed at some point in the game.
+    Parameters:
+    index - the objective's position in the world's list
+    Returns:
+    true if it has been completed
+    */
+    public boolean isComplete(int index){
+        return completed.get(index);
+    }
+
+    /**
+    Retrieves the number of objectives completed so far.
+    Returns:
+    the number of completed objectives
+    */
+    public int getCompletedCount(){
+        return completed.cardinality();
+    }
+
+    /**
+    Retrieves the number of objectives being tracked.
+    Returns:
+    the number of objectives
+    */
+    public int getObjectiveCount(){
+        return objectives.size();
+    }
+
+    /**
+    Takes the messages of the objectives completed since this was last called.
+    Returns:
+    the messages, one per line, or an empty string if none has been completed
+    */
+    public String takeEvents(){
+        if(events.isEmpty()){
+            return "";
+        }
+        StringBuilder out = new StringBuilder();
+        for(String message : events){
+            out.append(message).append("\n");
+        }
+        events.clear();
+        return out.toString();
+    }
+
+    private static String key(String id){
+        return id.toLowerCase(Locale.ROOT);
+    }
+}
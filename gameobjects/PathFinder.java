@@ -0,0 +1,368 @@
+package gameobjects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+/**
+ * Finds the shortest route between rooms along visible exits.
+ *
+ * <p>
+ * Routes over a world's {@code ExitGraph} are found by searching breadth-first from both ends at once, forwards
+ * from the player's room and backwards from the destination along the exits into each room, a whole layer at a
+ * time from whichever side has fewer rooms waiting. The search stops once the two sides meet, so it reads only the
+ * rooms within about half the route's length of either end rather than every room that can reach the destination,
+ * and a destination few rooms lead to is found unreachable as soon as the backward side runs out. Each thread keeps
+ * its own search arrays, stamped per search, so a search allocates nothing in proportion to the world. Routes are
+ * cached by start and destination and shared between games; the world never changes, so they never go stale.
+ * </p>
+ *
+ * <p>
+ * A game that has hidden or revealed an exit in its own copy of a room searches over its {@code ExitOverlay}
+ * instead, which its map updates only when that happens, and its routes are not cached. A world with no exit graph
+ * is searched room by room, within a budget.
+ * </p>
+ */
+public class PathFinder {
+
+    ///The most rooms GOTO reads when searching a world that has no exit graph.
+    public static final int SEARCH_BUDGET = 64;
+
+    ///The number of routes kept, by start and destination.
+    public static final int CACHED_ROUTES = 4096;
+
+    private static final int DIRECTIONS = Direction.values().length;
+    private static final byte[] NO_ROUTE = new byte[0]; //cached for a destination that cannot be reached
+
+    private ExitGraph exits;
+    private HashMap<String, Integer> roomsByName; //normalised name -> first room with that name
+    private int[] outgoing; //room * DIRECTIONS + direction -> where the visible exit leads, or -1
+    private int[] incomingStart; //room -> start of its incoming exits in incomingFrom
+    private int[] incomingFrom; //room * DIRECTIONS + direction of each visible exit, grouped by target room
+    private LinkedHashMap<Long, byte[]> routes; //start * rooms + destination -> direction ordinals, least recently used first
+    private ThreadLocal<Search> searches;
+    private long hits;
+    private long misses;
+
+    /**
+    Creates a path finder for a world's exits, indexing the room names and the visible exits out of and into each room.
+    Parameters:
+    exits - the world's exit graph
+    */
+    public PathFinder(ExitGraph exits){
+        this.exits = exits;
+        int rooms = exits.getRoomCount();
+        this.roomsByName = new HashMap<>(rooms * 4 / 3 + 1);
+        for(int room = 0; room < rooms; room++){
+            roomsByName.putIfAbsent(normalise(exits.getRoom(room).getName()), room);
+        }
+
+        //count then place the visible exits by target, so each room's incoming exits are contiguous
+        this.outgoing = new int[rooms * DIRECTIONS];
+        this.incomingStart = new int[rooms + 1];
+        for(int exit = 0; exit < outgoing.length; exit++){
+            int target = exits.visibleTarget(exit / DIRECTIONS, exit % DIRECTIONS);
+            outgoing[exit] = Math.max(-1, target);
+            if(target >= 0){
+                incomingStart[target + 1]++;
+            }
+        }
+        for(int room = 0; room < rooms; room++){
+            incomingStart[room + 1] += incomingStart[room];
+        }
+        this.incomingFrom = new int[incomingStart[rooms]];
+        int[] fill = Arrays.copyOf(incomingStart, rooms);
+        for(int exit = 0; exit < outgoing.length; exit++){
+            if(outgoing[exit] >= 0){
+                incomingFrom[fill[outgoing[exit]]++] = exit;
+            }
+        }
+        this.routes = new LinkedHashMap<>(16, 0.75f, true);
+        this.searches = ThreadLocal.withInitial(() -> new Search(rooms));
+    }
+
+    /**
+    Finds a room by name, ignoring case and extra spaces.
+    Parameters:
+    name - the room's name
+    Returns:
+    the room's number, or -1 if no room has that name
+    */
+    public int findRoom(String name){
+        Integer room = roomsByName.get(normalise(name));
+        return room != null ? room : -1;
+    }
+
+    /**
+    Finds the shortest route from a game's current room to a destination along the exits the game can see.
+    Parameters:
+    map - the game's map, backed by the world this path finder was made for
+    destination - the number of the room to reach
+    Returns:
+    the directions to move in, in order, empty if the game is already there, or null if the destination cannot be reached
+    */
+    public ArrayList<Direction> findRoute(Map map, int destination){
+        int from = map.getCurrentRoomNumber();
+        if(from < 0){
+            return null;
+        }
+        ArrayList<Direction> route = new ArrayList<>();
+        if(from == destination){
+            return route;
+        }
+
+        ExitOverlay overlay = map.getExitOverlay();
+        byte[] directions = overlay == null ? cached(from, destination) : null;
+        if(directions == null){
+            directions = searches.get().run(from, destination, overlay);
+            synchronized(this){
+                misses++;
+                if(overlay == null){
+                    routes.put(key(from, destination), directions);
+                    if(routes.size() > CACHED_ROUTES){
+                        routes.remove(routes.keySet().iterator().next());
+                    }
+                }
+            }
+        }
+        if(directions == NO_ROUTE){
+            return null;
+        }
+        for(byte direction : directions){
+            route.add(Direction.fromOrdinal(direction));
+        }
+        return route;
+    }
+
+    /**
+    Retrieves how many routes were answered from the cache.
+    Returns:
+    the number of cache hits
+    */
+    public synchronized long getHits(){
+        return hits;
+    }
+
+    /**
+    Retrieves how many routes had to be searched for.
+    Returns:
+    the number of cache misses
+    */
+    public synchronized long getMisses(){
+        return misses;
+    }
+
+    //a cached route, or null if there is none
+    private synchronized byte[] cached(int from, int destination){
+        byte[] directions = routes.get(key(from, destination));
+        if(directions != null){
+            hits++;
+        }
+        return directions;
+    }
+
+    private long key(int from, int destination){
+        return (long) from * exits.getRoomCount() + destination;
+    }
+
+    /*
+     * The arrays one thread searches with. A room counts as reached by a side only if its stamp there is the current
+     * search's, so the arrays never need clearing between searches.
+     */
+    private final class Search {
+        private int stamp;
+        private int[] forwardStamp;
+        private int[] backwardStamp;
+        private int[] forwardDistance; //moves from the start
+        private int[] backwardDistance; //moves to the destination
+        private int[] forwardVia; //room * DIRECTIONS + direction of the exit that first reached each room from the start
+        private int[] backwardVia; //room * DIRECTIONS + direction of the first exit on each room's way to the destination
+        private int[] forwardQueue;
+        private int[] backwardQueue;
+        private ExitOverlay overlay;
+        private int meeting; //the room where the best route found so far passes from one side to the other
+        private int best; //the length of that route
+
+        Search(int rooms){
+            this.forwardStamp = new int[rooms];
+            this.backwardStamp = new int[rooms];
+            this.forwardDistance = new int[rooms];
+            this.backwardDistance = new int[rooms];
+            this.forwardVia = new int[rooms];
+            this.backwardVia = new int[rooms];
+            this.forwardQueue = new int[rooms];
+            this.backwardQueue = new int[rooms];
+        }
+
+        //the directions from one room to another over the world's exits, or the game's when it has an overlay, or NO_ROUTE
+        byte[] run(int from, int destination, ExitOverlay overlay){
+            if(++stamp == Integer.MAX_VALUE){
+                Arrays.fill(forwardStamp, 0);
+                Arrays.fill(backwardStamp, 0);
+                stamp = 1;
+            }
+            this.overlay = overlay;
+            meeting = -1;
+            best = Integer.MAX_VALUE;
+            forwardStamp[from] = stamp;
+            forwardDistance[from] = 0;
+            backwardStamp[destination] = stamp;
+            backwardDistance[destination] = 0;
+            forwardQueue[0] = from;
+            backwardQueue[0] = destination;
+            int forwardHead = 0;
+            int forwardTail = 1;
+            int backwardHead = 0;
+            int backwardTail = 1;
+
+            //once the sides meet, finishing the layer finds every route of the shortest length through it
+            while(meeting < 0 && forwardHead < forwardTail && backwardHead < backwardTail){
+                if(forwardTail - forwardHead <= backwardTail - backwardHead){
+                    int layerEnd = forwardTail;
+                    while(forwardHead < layerEnd){
+                        int room = forwardQueue[forwardHead++];
+                        for(int d = 0; d < DIRECTIONS; d++){
+                            int target = target(room, d);
+                            if(target >= 0 && forwardStamp[target] != stamp){
+                                forwardStamp[target] = stamp;
+                                forwardDistance[target] = forwardDistance[room] + 1;
+                                forwardVia[target] = room * DIRECTIONS + d;
+                                forwardQueue[forwardTail++] = target;
+                                meet(target);
+                            }
+                        }
+                    }
+                } else{
+                    int layerEnd = backwardTail;
+                    while(backwardHead < layerEnd){
+                        int room = backwardQueue[backwardHead++];
+                        for(int i = incomingStart[room]; i < incomingStart[room + 1]; i++){
+                            if(overlay == null || !overlay.replaces(incomingFrom[i] / DIRECTIONS)){
+                                backwardTail = reachBackwards(incomingFrom[i], room, backwardTail);
+                            }
+                        }
+                        int[] replaced = overlay != null ? overlay.incoming(room) : null;
+                        if(replaced != null){
+                            for(int exit : replaced){
+                                backwardTail = reachBackwards(exit, room, backwardTail);
+                            }
+                        }
+                    }
+                }
+            }
+            if(meeting < 0){
+                return NO_ROUTE;
+            }
+
+            byte[] directions = new byte[best];
+            int room = meeting;
+            for(int i = forwardDistance[meeting] - 1; i >= 0; i--){
+                directions[i] = (byte) (forwardVia[room] % DIRECTIONS);
+                room = forwardVia[room] / DIRECTIONS;
+            }
+            room = meeting;
+            for(int i = forwardDistance[meeting]; i < best; i++){
+                int d = backwardVia[room] % DIRECTIONS;
+                directions[i] = (byte) d;
+                room = target(room, d);
+            }
+            return directions;
+        }
+
+        //follows an exit backwards into the room it starts in, returning the new end of the backward queue
+        private int reachBackwards(int exit, int room, int backwardTail){
+            int from = exit / DIRECTIONS;
+            if(backwardStamp[from] != stamp){
+                backwardStamp[from] = stamp;
+                backwardDistance[from] = backwardDistance[room] + 1;
+                backwardVia[from] = exit;
+                backwardQueue[backwardTail++] = from;
+                meet(from);
+            }
+            return backwardTail;
+        }
+
+        //records a route through a room both sides have reached, if it is the shortest yet
+        private void meet(int room){
+            if(forwardStamp[room] == stamp && backwardStamp[room] == stamp && forwardDistance[room] + backwardDistance[room] < best){
+                best = forwardDistance[room] + backwardDistance[room];
+                meeting = room;
+            }
+        }
+
+        //where a visible exit leads in the game being searched for, or a negative number
+        private int target(int room, int direction){
+            return overlay != null ? overlay.target(room, direction) : outgoing[room * DIRECTIONS + direction];
+        }
+    }
+
+    /**
+    Finds the shortest route to a room by name over the rooms' own exits, for maps whose world has no exit graph.
+    Every room the search passes through is read from the map, so the search gives up after reading a number of rooms;
+    only room IDs are kept, so in a world read on demand the rooms read can be dropped again.
+    Parameters:
+    map - the game's map
+    name - the name of the room to reach
+    budget - the most rooms to read, including the current one
+    Returns:
+    the directions to move in, in order, empty if the game is already there, or null if no room with that name was
+    reached within the budget
+    */
+    public static ArrayList<Direction> searchRooms(Map map, String name, int budget){
+        String wanted = normalise(name);
+        HashMap<String, String> cameFrom = new HashMap<>(); //room ID -> ID of the room it was reached from
+        HashMap<String, Direction> cameBy = new HashMap<>();
+        ArrayList<String> queue = new ArrayList<>();
+        String startId = map.getCurrentRoom().getId();
+        cameFrom.put(startId, null);
+        queue.add(startId);
+        for(int head = 0; head < queue.size() && head < budget; head++){
+            String roomId = queue.get(head);
+            Room room = head == 0 ? map.getCurrentRoom() : map.getRoom(roomId);
+            if(room == null){
+                continue;
+            }
+            if(normalise(room.getName()).equals(wanted)){
+                ArrayList<Direction> route = new ArrayList<>();
+                for(String id = roomId; cameFrom.get(id) != null; id = cameFrom.get(id)){
+                    route.add(cameBy.get(id));
+                }
+                java.util.Collections.reverse(route);
+                return route;
+            }
+            for(Direction direction : Direction.values()){
+                Exit exit = room.getExitByName(direction.getWord());
+                if(exit == null || exit.getHidden() || cameFrom.containsKey(exit.getNextRoom())){
+                    continue;
+                }
+                cameFrom.put(exit.getNextRoom(), roomId);
+                cameBy.put(exit.getNextRoom(), direction);
+                queue.add(exit.getNextRoom());
+            }
+        }
+        return null;
+    }
+
+    //lower case with single spaces, so "Fine  Liquor" and "fine liquor" match
+    private static String normalise(String name){
+        if(name == null){
+            return "";
+        }
+        StringBuilder out = new StringBuilder(name.length());
+        boolean space = false;
+        for(int i = 0; i < name.length(); i++){
+            char c = name.charAt(i);
+            if(Character.isWhitespace(c)){
+                space = out.length() > 0;
+            } else{
+                if(space){
+                    out.append(' ');
+                    space = false;
+                }
+                out.append(Character.toLowerCase(c));
+            }
+        }
+        return out.toString();
+    }
+}
@@ -1,22 +1,24 @@
 package gameobjects;
 
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents the player in the game, including their name, inventory, and equipment.
  *
  * <p>
  * The player can carry items and equipment, interact with the game world, and perform
- * actions using their inventory or equipment.
+ * actions using their inventory or equipment. Both are indexed {@code Inventory} stacks, so finding what the
+ * player carries takes the same time however much they have picked up.
  * </p>
  */
 public class Player {
 
     //initialise player name, inventory, equipment and score
     private String name;
-    private ArrayList<Item> inventory;
-    private ArrayList<Equipment> equipmentArray;
+    private Inventory<Item> inventory;
+    private Inventory<Equipment> equipmentArray;
     private int score;
+    private ObjectiveTracker objectives; //null when the world declares no objectives
 
     /**
         Constructs a new Player with the specified name and initializes their inventory and equipment.
@@ -26,8 +28,8 @@ public class Player {
     public Player(String name){
         //instantiate name, inventory, equipment and score
         this.name = name;
-        this.inventory = new ArrayList<>();
-        this.equipmentArray = new ArrayList<>();
+        this.inventory = new Inventory<>();
+        this.equipmentArray = new Inventory<>();
         this.score = 10; //set starting score to 10
     }
 
@@ -43,6 +45,15 @@ public class Player {
         score += 10;
     }
 
+    /**
+    Changes the player's score.
+    Parameters:
+    points - the points to add, negative to take points away
+    */
+    public void addScore(int points){
+        score += points;
+    }
+
     public int getScore() { //return the player's current score
         return score;
     }
@@ -59,27 +70,26 @@ public class Player {
     /**
     Retrieves the player's inventory.
     Returns:
-    an ArrayList of Item objects in the player's inventory
+    the player's items, one per stack in the order they were picked up
     */
-    public ArrayList<Item> getInventory(){
+    public Inventory<Item> getInventory(){
         return inventory;
     }
 
     public void removeFromInventory(Item item){
-        inventory.remove(item);
+        if(inventory.remove(item)){
+            track(item.getId(), inventory.getById(item.getId()) != null);
+        }
     }
 
     public void removeFromEquipment(Equipment equipment){
-        equipmentArray.remove(equipment);
+        if(equipmentArray.remove(equipment)){
+            track(equipment.getId(), equipmentArray.getById(equipment.getId()) != null);
+        }
     }
 
     public Item getItemByName(String itemName){
-        for(Item item : inventory){
-            if(item.getName().equalsIgnoreCase(itemName)){
-                return item;
-            }
-        }
-        return null;
+        return inventory.getByName(itemName);
     }
 
     /**
@@ -90,12 +100,7 @@ public class Player {
     true if the item is found, false otherwise
     */
     public boolean hasItem(String itemName){
-        for(Item item : inventory){
-            if(item.getName().equalsIgnoreCase(itemName)){
-                return true;
-            }
-        }
-        return false;
+        return inventory.containsName(itemName);
     }
 
     /**
@@ -106,12 +111,7 @@ public class Player {
     the Item object if found, or null if not found
     */
     public Item getItem(String itemName){
-        for(Item item : inventory){
-            if(item.getName().equals(itemName)){
-                return item;
-            }
-        }
-        return null;
+        return matchCase(inventory, itemName);
     }
 
     /**
@@ -121,14 +121,15 @@ public class Player {
     */
     public void addItem(Item item){
         inventory.add(item);
+        track(item.getId(), true);
     }
 
     /**
     Retrieves the player's equipment.
     Returns:
-    an ArrayList of Equipment objects in the player's possession
+    the player's equipment, one per stack in the order it was picked up
     */
-    public ArrayList<Equipment> getEquipment(){
+    public Inventory<Equipment> getEquipment(){
         return equipmentArray;
     }
 
@@ -140,12 +141,7 @@ public class Player {
     true if the equipment is found, false otherwise
     */
     public boolean hasEquipment(String equipmentName){
-        for(Equipment equipment : equipmentArray){
-            if(equipment != null && equipment.getName().equals(equipmentName)){
-                return true;
-            }
-        }
-        return false;
+        return getEquipment(equipmentName) != null;
     }
 
     /**
@@ -156,12 +152,7 @@ public class Player {
     the Equipment object if found, or null if not found
     */
     public Equipment getEquipment(String equipmentName){
-        for(Equipment equipment : equipmentArray){
-            if(equipment.getName().equals(equipmentName)){
-                return equipment;
-            }
-        }
-        return null;
+        return matchCase(equipmentArray, equipmentName); //equipment names match case
     }
 
     /**
@@ -171,26 +162,77 @@ public class Player {
     */
     public void addEquipment(Equipment equipment){
         equipmentArray.add(equipment);
+        track(equipment.getId(), true);
     }
 
-    public String getStatus(){
-        if(hasItem("buttercream") && hasItem("eggs") && hasItem("syrup") && hasItem("liquor") && hasItem("sweets") && hasItem("sugar")){
-            System.out.println("Congratulations Moonlight. You have obtained all of the ingredients and have become a step closer to world peace.\n");
+    /**
+    Sets the objectives this player works towards, tracking them from what the player already carries.
+    Parameters:
+    objectives - the world's objectives
+    */
+    public void setObjectives(List<Objective> objectives){
+        if(objectives.isEmpty()){
+            this.objectives = null;
+            return;
+        }
+        this.objectives = new ObjectiveTracker(objectives);
+        for(Item item : inventory){
+            this.objectives.update(item.getId(), true);
+        }
+        for(Equipment equipment : equipmentArray){
+            this.objectives.update(equipment.getId(), true);
         }
+    }
+
+    /**
+    Retrieves the player's progress towards the world's objectives.
+    Returns:
+    the tracker, or null if the world declares no objectives
+    */
+    public ObjectiveTracker getObjectives(){
+        return objectives;
+    }
+
+    private void track(String id, boolean carried){
+        if(objectives != null){
+            objectives.update(id, carried);
+        }
+    }
+
+    //finds an object whose name matches exactly, scanning only when the indexed stack differs from it only in case
+    private static <T extends GameObject> T matchCase(Inventory<T> objects, String name){
+        T object = objects.getByName(name);
+        if(object == null || object.getName().equals(name)){
+            return object;
+        }
+        for(T each : objects){
+            if(each.getName().equals(name)){
+                return each;
+            }
+        }
+        return null;
+    }
+
+    public String getStatus(){
         return "Player Name: " + this.name +
                 "\nInventory: " + getDescriptions(inventory) +
                 "\nEquipment: " + getDescriptions(equipmentArray) + 
                 "\nScore: " + getScore();
     }
 
-    public <T extends GameObject> String getDescriptions(ArrayList<T> objects){
+    public <T extends GameObject> String getDescriptions(Inventory<T> objects){
         if(objects.isEmpty()){
             return "";
         }
 
         StringBuilder descriptions = new StringBuilder();
-        for(GameObject object : objects){
-            descriptions.append(object.getDescription()).append("\n");
+        for(T object : objects){
+            descriptions.append(object.getDescription());
+            int quantity = objects.getQuantity(object);
+            if(quantity > 1){
+                descriptions.append(" (x").append(quantity).append(')');
+            }
+            descriptions.append("\n");
         }
         return descriptions.toString();
     }
@@ -0,0 +1,87 @@
+package gameobjects;
+
+/**
+ * What combining a set of objects makes: the objects used up, the prototypes copied into the player's inventory,
+ * the change to the player's score and the message shown.
+ *
+ * <p>
+ * Recipes come from {@code recipe:} records in the world file and are shared by every game in the world. The order
+ * the inputs are listed or named in does not matter; an object listed twice must be carried twice.
+ * </p>
+ */
+public class Recipe {
+
+    private String[] inputIds;
+    private String[] outputIds;
+    private int points;
+    private String message;
+
+    /**
+    Creates a recipe.
+    Parameters:
+    inputIds - the IDs of the objects used up, at least two
+    outputIds - the IDs of the prototypes the player is given
+    points - the points added to the player's score, negative to take points away
+    message - the message shown when the objects are combined
+    Throws:
+    IllegalArgumentException - if fewer than two inputs are given
+    */
+    public Recipe(String[] inputIds, String[] outputIds, int points, String message){
+        if(inputIds.length < 2){
+            throw new IllegalArgumentException("A recipe must combine at least two objects");
+        }
+        this.inputIds = inputIds.clone();
+        this.outputIds = outputIds.clone();
+        this.points = points;
+        this.message = message;
+    }
+
+    public String[] getInputIds(){
+        return inputIds.clone();
+    }
+
+    public String[] getOutputIds(){
+        return outputIds.clone();
+    }
+
+    public int getPoints(){
+        return points;
+    }
+
+    public String getMessage(){
+        return message;
+    }
+
+    /**
+    Gives the player a copy of each output prototype and changes their score. The inputs must already be used up.
+    Parameters:
+    gameState - the game the recipe is made in
+    */
+    public void apply(GameState gameState){
+        Player player = gameState.getPlayer();
+        ObjectLocations locations = gameState.getLocations();
+        for(String outputId : outputIds){
+            GameObject prototype = gameState.getUseRules().getPrototype(outputId);
+            if(prototype instanceof Equipment){
+                Equipment equipment = ((Equipment) prototype).copy();
+                player.addEquipment(equipment);
+                locations.movedToPlayer(equipment);
+            } else if(prototype instanceof Item){
+                Item item = ((Item) prototype).copy();
+                player.addItem(item);
+                locations.movedToPlayer(item);
+            }
+        }
+        player.addScore(points);
+    }
+
+    @Override
+    public String toString() {
+        return "Recipe {" +
+                "inputs=" + String.join(" ", inputIds) +
+                ", outputs=" + String.join(" ", outputIds) +
+                ", points=" + points +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
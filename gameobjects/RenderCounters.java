@@ -0,0 +1,51 @@
+package gameobjects;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often a world's room descriptions are served from their memoised text and how often they are built.
+ *
+ * <p>
+ * Each world owns one, shared by its rooms and every session's copies of them. The counts are {@code LongAdder}s,
+ * so sessions looking at rooms on different threads do not contend on a single counter.
+ * </p>
+ */
+public class RenderCounters {
+
+    private LongAdder hits;
+    private LongAdder misses;
+
+    ///Creates counters starting at zero.
+    public RenderCounters(){
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    ///Records a description served without being built again.
+    void hit(){
+        hits.increment();
+    }
+
+    ///Records a description that had to be built.
+    void miss(){
+        misses.increment();
+    }
+
+    /**
+    Retrieves how many descriptions were served without being built again.
+    Returns:
+    the number of cache hits
+    */
+    public long getHits(){
+        return hits.sum();
+    }
+
+    /**
+    Retrieves how many descriptions had to be built.
+    Returns:
+    the number of cache misses
+    */
+    public long getMisses(){
+        return misses.sum();
+    }
+}
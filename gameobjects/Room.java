@@ -1,22 +1,47 @@
 package gameobjects;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 
 /**
  * Represents a room in the game, which is a type of {@code GameObject}.
  *
  * <p>
  * Rooms can have items, equipment, features, and exits. They also manage navigation
- * and interactions within the game world.
+ * and interactions within the game world. Each kind of object is indexed by ID and name, ignoring case,
+ * so lookups stay fast in rooms that hold hundreds of objects.
+ * </p>
+ *
+ * <p>
+ * Every change to a room or to what it shows (adding or removing an object, hiding or revealing one, or changing a
+ * description) bumps the room's version. The text {@link #describe()} builds is kept with the version it was built
+ * at and handed out again until the room changes; shared rooms are never changed, so every session looking at one
+ * is served the same text.
  * </p>
  */
 public class Room extends GameObject {
 
-    private ArrayList<Exit> exits;
-    private ArrayList<Item> items;
-    private ArrayList<Feature> features;
-    private ArrayList<Equipment> equipmentArray;
-    private ArrayList<GameObject> allObjects;
+    private ObjectIndex<Exit> exits;
+    private ObjectIndex<Item> items;
+    private ObjectIndex<Feature> features;
+    private ObjectIndex<Equipment> equipmentArray;
+    private LinkedHashSet<GameObject> allObjects;
+    private boolean shared; //true for rooms in a world template, which every session reads and none may change
+    private int version; //bumped on every change
+    private volatile Rendering rendering; //the last description built, or null
+    private RenderCounters counters; //the world's, or null for a room that belongs to no world
+    private Map exitWatcher; //the game told when an exit here is hidden or revealed, or null
+
+    //a description and the version of the room it describes, replaced together so sessions never see one without the other
+    private static final class Rendering {
+        final int version;
+        final String text;
+
+        Rendering(int version, String text){
+            this.version = version;
+            this.text = text;
+        }
+    }
     /**
     Constructs a new Room with the specified attributes.
     Parameters:
@@ -30,17 +55,66 @@ public class Room extends GameObject {
         this.name = name;
         this.description = description;
         this.hidden = hidden;
-        this.exits = new ArrayList<>();
-        this.items = new ArrayList<>();
-        this.features = new ArrayList<>();
-        this.equipmentArray = new ArrayList<>();
-        this.allObjects = new ArrayList<>();
+        this.exits = new ObjectIndex<>(this);
+        this.items = new ObjectIndex<>(this);
+        this.features = new ObjectIndex<>(this);
+        this.equipmentArray = new ObjectIndex<>(this);
+        this.allObjects = new LinkedHashSet<>();
     }
 
     ///Default constructor for Room.
     public Room(){
     }
 
+    /**
+    Creates a copy of this room and everything in it for a single game session.
+    The copy shares this room's strings and can be changed freely.
+    Returns:
+    a new, unshared Room with copies of this room's objects
+    */
+    public Room copy(){
+        Room room = new Room(id, name, description, hidden);
+        for(Feature feature : features.list()){
+            room.addFeature(feature.copy());
+        }
+        for(Equipment equipment : equipmentArray.list()){
+            room.addEquipment(equipment.copy());
+        }
+        for(Item item : items.list()){
+            room.addItem(item.copy());
+        }
+        for(Exit exit : exits.list()){
+            room.addExit(exit.copy());
+        }
+        room.counters = counters;
+        return room;
+    }
+
+    /**
+    Marks this room as shared between game sessions. A shared room can no longer be changed; sessions change a copy instead.
+    Parameters:
+    counters - the world's description counters, which this room and its copies count into
+    */
+    public void share(RenderCounters counters){
+        this.shared = true;
+        this.counters = counters;
+    }
+
+    /**
+    Checks whether this room is shared between game sessions.
+    Returns:
+    true if the room belongs to a world template and must not be changed
+    */
+    public boolean isShared(){
+        return shared;
+    }
+
+    private void checkNotShared(){
+        if(shared){
+            throw new IllegalStateException("Room " + id + " is shared between sessions and cannot be changed");
+        }
+    }
+
     /**
     Sets the name of the room.
     Overrides:
@@ -50,6 +124,7 @@ public class Room extends GameObject {
     */
     public void setName(String name){
         this.name = name;
+        changed();
     }
 
     /**
@@ -61,6 +136,7 @@ public class Room extends GameObject {
     */
     public void setDescription(String description){
         this.description = description;
+        changed();
     }
 
     /**
@@ -91,7 +167,7 @@ public class Room extends GameObject {
     a list of exits in the room
     */
     public ArrayList<Exit> getExits(){
-        return exits;
+        return exits.list();
     }
 
     /**
@@ -100,7 +176,9 @@ public class Room extends GameObject {
     exit - the exit to add
     */
     public void addExit(Exit exit){
+        checkNotShared();
         exits.add(exit);
+        changed();
         allObjects.add(exit);
     }
 
@@ -110,7 +188,7 @@ public class Room extends GameObject {
     a list of items in the room
     */
     public ArrayList<Item> getItems(){
-        return items;
+        return items.list();
     }
 
     /**
@@ -121,12 +199,7 @@ public class Room extends GameObject {
     the item if found, otherwise null
     */
     public Item getItem(String id){
-        for(Item item : items){
-            if(item.getId().equalsIgnoreCase(id)){
-                return item;
-            }
-        }
-        return null;
+        return items.getById(id);
     }
 
     /**
@@ -137,21 +210,11 @@ public class Room extends GameObject {
     the item if found, otherwise null
     */
     public Item getItemByName(String name){
-        for(Item item : items){
-            if(item.getName().equalsIgnoreCase(name)){
-                return item;
-            }
-        }
-        return null;
+        return items.getByName(name);
     }
 
     public Item getItemById(String id){
-        for(Item item : items){
-            if(item.getId().equalsIgnoreCase(id)){
-                return item;
-            }
-        }
-        return null;
+        return items.getById(id);
     }
 
     public boolean hasItemId(String id){
@@ -162,12 +225,7 @@ public class Room extends GameObject {
     }
 
     public Equipment getEquipById(String id){
-        for(Equipment equipment : equipmentArray){
-            if(equipment.getId().equalsIgnoreCase(id)){
-                return equipment;
-            }
-        }
-        return null;
+        return equipmentArray.getById(id);
     }
 
     public boolean hasEquipmentId(String id){
@@ -185,12 +243,7 @@ public class Room extends GameObject {
     the feature if found, otherwise null
     */
     public Feature getFeatureByName(String name){
-        for(Feature feature : features){
-            if(feature.getName().equals(name)){
-                return feature;
-            }
-        }
-        return null;
+        return features.getByName(name);
     }
 
     /**
@@ -199,7 +252,7 @@ public class Room extends GameObject {
     a list of equipment in the room
     */
     public ArrayList<Equipment> getEquipments(){
-        return equipmentArray;
+        return equipmentArray.list();
     }
 
     /**
@@ -210,12 +263,7 @@ public class Room extends GameObject {
     the equipment if found, otherwise null
     */
     public Equipment getEquipmentByName(String name){
-        for(Equipment equipment : equipmentArray){
-            if(equipment.getName().equalsIgnoreCase(name)){
-                return equipment;
-            }
-        }
-        return null;
+        return equipmentArray.getByName(name);
     }
 
     /**
@@ -226,12 +274,7 @@ public class Room extends GameObject {
     the equipment if found, otherwise null
     */
     public Equipment getEquipment(String id){
-        for(Equipment equipment : equipmentArray){
-            if(equipment.getId().equalsIgnoreCase(id)){
-                return equipment;
-            }
-        }
-        return null;
+        return equipmentArray.getById(id);
     }
 
     /**
@@ -242,21 +285,33 @@ public class Room extends GameObject {
     the exit if found, otherwise null
     */
     public Exit getExit(String id){
-        for(Exit exit : exits){
-            if(exit.getId().equalsIgnoreCase(id)){
-                return exit;
-            }
-        }
-        return null;
+        return exits.getById(id);
     }
 
     public Exit getExitByName(String name){
-        for(Exit exit : exits){
-            if(exit.getName().equalsIgnoreCase(name)){
-                return exit;
-            }
+        return exits.getByName(name);
+    }
+
+    /**
+    Finds a visible object in the room by its name, ignoring case. Features come before items, items before
+    equipment and equipment before exits; within one kind, hidden objects sharing the name are passed over.
+    Parameters:
+    name - the name of the object
+    Returns:
+    the first visible object with that name, or null if the room shows none
+    */
+    GameObject getVisibleByName(String name){
+        GameObject found = features.getVisibleByName(name);
+        if(found == null){
+            found = items.getVisibleByName(name);
         }
-        return null;
+        if(found == null){
+            found = equipmentArray.getVisibleByName(name);
+        }
+        if(found == null){
+            found = exits.getVisibleByName(name);
+        }
+        return found;
     }
     
     /**
@@ -265,7 +320,9 @@ public class Room extends GameObject {
     equipment - the equipment to add
     */
     public void addEquipment(Equipment equipment){
+        checkNotShared();
         equipmentArray.add(equipment);
+        changed();
         allObjects.add(equipment);
     }
 
@@ -277,12 +334,7 @@ public class Room extends GameObject {
     the feature if found, otherwise null
     */
     public Feature getFeature(String id){
-        for(Feature feature : features){
-            if(feature.getId().equalsIgnoreCase(id)){
-                return feature;
-            }
-        }
-        return null;
+        return features.getById(id);
     }
 
     /**
@@ -291,17 +343,23 @@ public class Room extends GameObject {
     item - the item to add
     */
     public void addItem(Item item){
+        checkNotShared();
         items.add(item);
+        changed();
         allObjects.add(item);
     }
 
     public void removeItem(Item item){
+        checkNotShared();
         items.remove(item);
+        changed();
         allObjects.remove(item);
     }
 
     public void removeEquipment(Equipment equipment){
+        checkNotShared();
         equipmentArray.remove(equipment);
+        changed();
         allObjects.remove(equipment);
     }
 
@@ -311,15 +369,111 @@ public class Room extends GameObject {
     a list of features in the room
     */
     public ArrayList<Feature> getFeatures(){
-        return features;
+        return features.list();
+    }
+
+    /**
+    Describes the room and the objects in it that can be seen, as the LOOK command shows it.
+    The text is built once and reused until the room changes.
+    Returns:
+    the room's description followed by a description of each visible feature, piece of equipment, item and exit
+    */
+    public String describe(){
+        Rendering last = rendering;
+        if(last != null && last.version == version){
+            if(counters != null){
+                counters.hit();
+            }
+            return last.text;
+        }
+        if(counters != null){
+            counters.miss();
+        }
+        StringBuilder out = new StringBuilder(256);
+        out.append(description).append("\nYou see:\n");
+        features.appendVisibleDescriptions(out);
+        equipmentArray.appendVisibleDescriptions(out);
+        items.appendVisibleDescriptions(out);
+        exits.appendVisibleDescriptions(out);
+        String text = out.toString();
+        rendering = new Rendering(version, text);
+        return text;
+    }
+
+    /**
+    Retrieves the version of the room, which changes whenever the room or anything it shows changes.
+    Returns:
+    the version
+    */
+    public int getVersion(){
+        return version;
+    }
+
+    /**
+    Records that the room or something in it has changed, so that its description is built again.
+    */
+    void changed(){
+        version++;
+    }
+
+    /**
+    Has a game's map told whenever one of this room's exits is hidden or revealed, so it can keep its routes up to date.
+    Parameters:
+    map - the map that owns this room
+    */
+    void watchExits(Map map){
+        this.exitWatcher = map;
+    }
+
+    ///Records that one of this room's exits has been hidden or revealed.
+    void exitHiddenChanged(){
+        if(exitWatcher != null){
+            exitWatcher.exitsChanged(this);
+        }
+    }
+
+    /**
+    Appends the descriptions of the visible features, one per line.
+    Parameters:
+    out - the builder to append to
+    */
+    public void appendVisibleFeatures(StringBuilder out){
+        features.appendVisibleDescriptions(out);
+    }
+
+    /**
+    Appends the descriptions of the visible equipment, one per line.
+    Parameters:
+    out - the builder to append to
+    */
+    public void appendVisibleEquipment(StringBuilder out){
+        equipmentArray.appendVisibleDescriptions(out);
+    }
+
+    /**
+    Appends the descriptions of the visible items, one per line.
+    Parameters:
+    out - the builder to append to
+    */
+    public void appendVisibleItems(StringBuilder out){
+        items.appendVisibleDescriptions(out);
+    }
+
+    /**
+    Appends the descriptions of the visible exits, one per line.
+    Parameters:
+    out - the builder to append to
+    */
+    public void appendVisibleExits(StringBuilder out){
+        exits.appendVisibleDescriptions(out);
     }
 
     /**
-    Retrieves all game objects in the room.
+    Retrieves all game objects in the room, in the order they were added. The set must not be changed directly.
     Returns:
-    a list of all game objects in the room
+    a set of all game objects in the room
     */
-    public ArrayList<GameObject> getAll(){
+    public LinkedHashSet<GameObject> getAll(){
         return allObjects;
     }
 
@@ -329,7 +483,9 @@ public class Room extends GameObject {
     feature - the feature to add
     */
     public void addFeature(Feature feature){
+        checkNotShared();
         features.add(feature);
+        changed();
         allObjects.add(feature);
     }
 
@@ -376,16 +532,16 @@ public class Room extends GameObject {
     @Override
     public String toString() {
         String out = "[" + id + "] Room: " + name + "\nDescription: " + description + "\nIn the room there is: ";
-        for (Item i : this.items) {
+        for (Item i : this.items.list()) {
             out += i + "\n";
         }
-        for (Equipment e : this.equipmentArray) {
+        for (Equipment e : this.equipmentArray.list()) {
             out += e + "\n";
         }
-        for (Feature f : this.features) {
+        for (Feature f : this.features.list()) {
             out += f + "\n";
         }
-        for (Exit e : this.exits) {
+        for (Exit e : this.exits.list()) {
             out += e + "\n";
         }
         return out + "\n";
@@ -0,0 +1,278 @@
+package gameobjects;
+
+import java.util.ArrayList;
+
+/**
+ * One thing that happens when a use rule fires, such as revealing an object or opening an exit.
+ *
+ * <p>
+ * Effects are written in world files as {@code kind:argument}, separated by spaces:
+ * {@code reveal:<object>}, {@code spawn:<prototype>[@<room>]}, {@code move:<object>@<room>},
+ * {@code open:<exit>[@<room>]} and {@code score:<points>}. Objects, exits and rooms are named by ID, so an effect
+ * can reach any room in the world; where the room is left out, the effect happens in the room the player is in.
+ * Effects only change the rooms of the game they fire in.
+ * </p>
+ */
+public class UseEffect {
+
+    /**
+     * What an effect does.
+     */
+    public enum Kind {
+        ///Makes a hidden object visible wherever it lies.
+        REVEAL("reveal"),
+        ///Puts a new copy of a prototype object into a room.
+        SPAWN("spawn"),
+        ///Moves an object from wherever it is, including the player's inventory, into a room.
+        MOVE("move"),
+        ///Makes a hidden exit usable.
+        OPEN("open"),
+        ///Adds points to the player's score, or takes them away.
+        SCORE("score");
+
+        private final String word;
+
+        Kind(String word){
+            this.word = word;
+        }
+    }
+
+    private Kind kind;
+    private String objectId; //the object, prototype or exit the effect acts on
+    private String roomId; //the room it acts in, or null for the player's room
+    private int points;
+
+    private UseEffect(Kind kind, String objectId, String roomId, int points){
+        this.kind = kind;
+        this.objectId = objectId;
+        this.roomId = roomId;
+        this.points = points;
+    }
+
+    /**
+    Creates an effect that reveals an object wherever it lies.
+    Parameters:
+    objectId - the ID of the object
+    Returns:
+    the effect
+    */
+    public static UseEffect reveal(String objectId){
+        return new UseEffect(Kind.REVEAL, objectId, null, 0);
+    }
+
+    /**
+    Creates an effect that changes the player's score.
+    Parameters:
+    points - the points to add, negative to take points away
+    Returns:
+    the effect
+    */
+    public static UseEffect score(int points){
+        return new UseEffect(Kind.SCORE, null, null, points);
+    }
+
+    /**
+    Parses a space-separated list of effects.
+    Parameters:
+    text - the effects, as written in a world file
+    Returns:
+    the effects, in order
+    Throws:
+    IllegalArgumentException - if an effect is malformed
+    */
+    public static UseEffect[] parseAll(String text){
+        ArrayList<UseEffect> effects = new ArrayList<>();
+        for(String effect : text.trim().split("\\s+")){
+            if(!effect.isEmpty()){
+                effects.add(parse(effect));
+            }
+        }
+        return effects.toArray(new UseEffect[0]);
+    }
+
+    /**
+    Parses one effect of the form kind:argument.
+    Parameters:
+    text - the effect
+    Returns:
+    the effect
+    Throws:
+    IllegalArgumentException - if the effect is malformed
+    */
+    public static UseEffect parse(String text){
+        int colon = text.indexOf(':');
+        if(colon <= 0 || colon == text.length() - 1){
+            throw new IllegalArgumentException("Malformed effect '" + text + "', expected kind:argument");
+        }
+        String word = text.substring(0, colon);
+        String argument = text.substring(colon + 1);
+        for(Kind kind : Kind.values()){
+            if(!kind.word.equalsIgnoreCase(word)){
+                continue;
+            }
+            if(kind == Kind.SCORE){
+                try{
+                    return score(Integer.parseInt(argument.startsWith("+") ? argument.substring(1) : argument));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Malformed score effect '" + text + "', expected a whole number of points");
+                }
+            }
+            int at = argument.indexOf('@');
+            String objectId = at >= 0 ? argument.substring(0, at) : argument;
+            String roomId = at >= 0 ? argument.substring(at + 1) : null;
+            if(objectId.isEmpty() || (roomId != null && roomId.isEmpty()) || (kind == Kind.MOVE && roomId == null) || (kind == Kind.REVEAL && roomId != null)){
+                throw new IllegalArgumentException("Malformed " + kind.word + " effect '" + text + "'");
+            }
+            return new UseEffect(kind, objectId, roomId, 0);
+        }
+        throw new IllegalArgumentException("Unknown effect '" + word + "'");
+    }
+
+    public Kind getKind(){
+        return kind;
+    }
+
+    public String getObjectId(){
+        return objectId;
+    }
+
+    /**
+    Applies the effect to a game. Effects whose object or room no longer exists do nothing.
+    Parameters:
+    gameState - the game the effect happens in
+    */
+    public void apply(GameState gameState){
+        Map map = gameState.getMap();
+        ObjectLocations locations = gameState.getLocations();
+        switch(kind){
+            case REVEAL: {
+                GameObject object = null;
+                String roomId = locations.getRoomId(objectId);
+                if(roomId != null){
+                    Room room = roomForUpdate(map, roomId);
+                    object = room != null ? find(room, objectId) : null;
+                } else if(!locations.isKnown(objectId) && map.getCurrentRoom() != null && find(map.getCurrentRoom(), objectId) != null){
+                    //a world read on demand has no directory, so an object no game has moved is looked for in the player's room
+                    object = find(map.getCurrentRoomForUpdate(), objectId);
+                }
+                if(object != null){
+                    object.setHidden(false);
+                }
+                break;
+            }
+            case SPAWN: {
+                GameObject prototype = gameState.getUseRules().getPrototype(objectId);
+                Room room = roomForUpdate(map, roomId);
+                if(prototype == null || room == null){
+                    break;
+                }
+                GameObject object;
+                if(prototype instanceof Equipment){
+                    Equipment equipment = ((Equipment) prototype).copy();
+                    room.addEquipment(equipment);
+                    object = equipment;
+                } else{
+                    Item item = ((Item) prototype).copy();
+                    room.addItem(item);
+                    object = item;
+                }
+                locations.movedToRoom(object, room.getId());
+                break;
+            }
+            case MOVE: {
+                Room to = roomForUpdate(map, roomId);
+                if(to == null){
+                    break;
+                }
+                Player player = gameState.getPlayer();
+                GameObject object = null;
+                if(locations.isCarried(objectId)){
+                    object = takeFromPlayer(player, objectId);
+                } else{
+                    String fromId = locations.getRoomId(objectId);
+                    Room from = fromId != null ? roomForUpdate(map, fromId) : null;
+                    object = from != null ? takeFromRoom(from, objectId) : null;
+                }
+                if(object instanceof Equipment){
+                    to.addEquipment((Equipment) object);
+                } else if(object instanceof Item){
+                    to.addItem((Item) object);
+                } else{
+                    break;
+                }
+                locations.movedToRoom(object, to.getId());
+                break;
+            }
+            case OPEN: {
+                Room room = roomForUpdate(map, roomId);
+                Exit exit = room != null ? room.getExit(objectId) : null;
+                if(exit != null){
+                    exit.setHidden(false);
+                }
+                break;
+            }
+            case SCORE:
+                gameState.getPlayer().addScore(points);
+                break;
+        }
+    }
+
+    //the game's own copy of a room, or of the player's room when roomId is null
+    private static Room roomForUpdate(Map map, String roomId){
+        Room current = map.getCurrentRoom();
+        if(roomId == null || (current != null && roomId.equals(current.getId()))){
+            return map.getCurrentRoomForUpdate();
+        }
+        return map.getRoomForUpdate(roomId);
+    }
+
+    private static GameObject find(Room room, String id){
+        GameObject object = room.getItemById(id);
+        if(object == null){
+            object = room.getEquipById(id);
+        }
+        if(object == null){
+            object = room.getFeature(id);
+        }
+        return object;
+    }
+
+    private static GameObject takeFromRoom(Room room, String id){
+        Item item = room.getItemById(id);
+        if(item != null){
+            room.removeItem(item);
+            return item;
+        }
+        Equipment equipment = room.getEquipById(id);
+        if(equipment != null){
+            room.removeEquipment(equipment);
+        }
+        return equipment;
+    }
+
+    private static GameObject takeFromPlayer(Player player, String id){
+        Item item = player.getInventory().getById(id);
+        if(item != null){
+            player.removeFromInventory(item);
+            return item;
+        }
+        Equipment equipment = player.getEquipment().getById(id);
+        if(equipment != null){
+            player.removeFromEquipment(equipment);
+        }
+        return equipment;
+    }
+
+    /**
+    Writes the effect as it appears in a world file.
+    Returns:
+    the effect in the form kind:argument
+    */
+    @Override
+    public String toString() {
+        if(kind == Kind.SCORE){
+            return kind.word + ":" + points;
+        }
+        return kind.word + ":" + objectId + (roomId != null ? "@" + roomId : "");
+    }
+}
@@ -0,0 +1,97 @@
+package gameobjects;
+
+/**
+ * What happens when a piece of equipment is used on a target: a list of effects and the message shown.
+ *
+ * <p>
+ * Rules come from {@code use:} records in the world file and are shared by every game in the world. A rule fires
+ * once per game; which rules a game has used is kept in its {@code GameState}, by each rule's number.
+ * </p>
+ */
+public class UseRule {
+
+    private int number;
+    private String equipmentId;
+    private String targetId;
+    private UseEffect[] effects;
+    private String message;
+
+    /**
+    Creates a rule.
+    Parameters:
+    number - the rule's position among the world's rules
+    equipmentId - the ID of the equipment used
+    targetId - the ID of the object it is used on
+    effects - what happens, in order
+    message - the message shown when the rule fires
+    */
+    public UseRule(int number, String equipmentId, String targetId, UseEffect[] effects, String message){
+        this.number = number;
+        this.equipmentId = equipmentId;
+        this.targetId = targetId;
+        this.effects = effects.clone();
+        this.message = message;
+    }
+
+    public int getNumber(){
+        return number;
+    }
+
+    public String getEquipmentId(){
+        return equipmentId;
+    }
+
+    public String getTargetId(){
+        return targetId;
+    }
+
+    public String getMessage(){
+        return message;
+    }
+
+    public UseEffect[] getEffects(){
+        return effects.clone();
+    }
+
+    //the effects, for copying the rule into another set
+    UseEffect[] effects(){
+        return effects;
+    }
+
+    /**
+    Applies every effect of the rule to a game, in order.
+    Parameters:
+    gameState - the game the rule fires in
+    */
+    public void apply(GameState gameState){
+        for(UseEffect effect : effects){
+            effect.apply(gameState);
+        }
+    }
+
+    /**
+    Writes the effects as they appear in a world file.
+    Returns:
+    the effects, separated by spaces
+    */
+    public String getEffectsText(){
+        StringBuilder out = new StringBuilder();
+        for(UseEffect effect : effects){
+            if(out.length() > 0){
+                out.append(' ');
+            }
+            out.append(effect);
+        }
+        return out.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "UseRule {" +
+                "equipment='" + equipmentId + '\'' +
+                ", target='" + targetId + '\'' +
+                ", effects='" + getEffectsText() + '\'' +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
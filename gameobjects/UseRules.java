@@ -0,0 +1,188 @@
+package gameobjects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * A world's use rules, indexed by equipment and target, its combining recipes, indexed by their inputs, and the
+ * prototype objects its rules and recipes can make copies of.
+ *
+ * <p>
+ * Finding the rule for an attempt is one hash lookup on the pair of IDs, matched ignoring case, however many
+ * rules the world has or however full the room is. Equipment can have any number of rules, one per target; if a
+ * world repeats a pair, the first rule wins. Prototypes are objects declared before the first room that belong
+ * to no room until a rule spawns a copy of them.
+ * </p>
+ *
+ * <p>
+ * A recipe is keyed by its input IDs sorted and joined, so objects named in any order find it with one hash lookup
+ * however many recipes the world has. If two recipes share their inputs, the first wins.
+ * </p>
+ */
+public class UseRules {
+
+    private ArrayList<UseRule> rules;
+    private HashMap<String, UseRule> byPair; //equipment ID + '\0' + target ID -> rule
+    private ArrayList<GameObject> prototypes;
+    private HashMap<String, GameObject> prototypesById;
+    private ArrayList<Recipe> recipes;
+    private HashMap<String, Recipe> byInputs; //sorted input IDs joined by '\0' -> recipe
+
+    ///Constructs an empty set of rules.
+    public UseRules(){
+        this.rules = new ArrayList<>(0);
+        this.byPair = new HashMap<>();
+        this.prototypes = new ArrayList<>(0);
+        this.prototypesById = new HashMap<>();
+        this.recipes = new ArrayList<>(0);
+        this.byInputs = new HashMap<>();
+    }
+
+    /**
+    Adds a rule after the existing ones.
+    Parameters:
+    equipmentId - the ID of the equipment used
+    targetId - the ID of the object it is used on
+    effects - what happens, in order
+    message - the message shown when the rule fires
+    Returns:
+    the new rule
+    */
+    public UseRule add(String equipmentId, String targetId, UseEffect[] effects, String message){
+        UseRule rule = new UseRule(rules.size(), equipmentId, targetId, effects, message);
+        rules.add(rule);
+        byPair.putIfAbsent(pair(equipmentId, targetId), rule);
+        return rule;
+    }
+
+    /**
+    Finds the rule for using a piece of equipment on a target.
+    Parameters:
+    equipmentId - the ID of the equipment
+    targetId - the ID of the target
+    Returns:
+    the rule, or null if using the equipment on the target does nothing
+    */
+    public UseRule find(String equipmentId, String targetId){
+        if(equipmentId == null || targetId == null || rules.isEmpty()){
+            return null;
+        }
+        return byPair.get(pair(equipmentId, targetId));
+    }
+
+    /**
+    Retrieves the rules in the order they were added. The list must not be changed directly.
+    Returns:
+    the rules
+    */
+    public ArrayList<UseRule> getRules(){
+        return rules;
+    }
+
+    /**
+    Adds a prototype object that rules can spawn copies of.
+    Parameters:
+    prototype - an item or piece of equipment
+    */
+    public void addPrototype(GameObject prototype){
+        prototypes.add(prototype);
+        if(prototype.getId() != null){
+            prototypesById.putIfAbsent(key(prototype.getId()), prototype);
+        }
+    }
+
+    /**
+    Finds a prototype by its ID, ignoring case.
+    Parameters:
+    id - the prototype's ID
+    Returns:
+    the prototype, which must not be changed, or null if there is none
+    */
+    public GameObject getPrototype(String id){
+        return id != null ? prototypesById.get(key(id)) : null;
+    }
+
+    /**
+    Retrieves the prototypes in the order they were added. The list must not be changed directly.
+    Returns:
+    the prototypes
+    */
+    public ArrayList<GameObject> getPrototypes(){
+        return prototypes;
+    }
+
+    /**
+    Adds a recipe after the existing ones.
+    Parameters:
+    recipe - the recipe
+    */
+    public void addRecipe(Recipe recipe){
+        recipes.add(recipe);
+        byInputs.putIfAbsent(inputs(recipe.getInputIds()), recipe);
+    }
+
+    /**
+    Finds the recipe that combines exactly a set of objects, in any order.
+    Parameters:
+    inputIds - the IDs of the objects, which are not changed
+    Returns:
+    the recipe, or null if the objects do not combine
+    */
+    public Recipe findRecipe(String[] inputIds){
+        if(recipes.isEmpty()){
+            return null;
+        }
+        for(String id : inputIds){
+            if(id == null){
+                return null;
+            }
+        }
+        return byInputs.get(inputs(inputIds));
+    }
+
+    /**
+    Retrieves the recipes in the order they were added. The list must not be changed directly.
+    Returns:
+    the recipes
+    */
+    public ArrayList<Recipe> getRecipes(){
+        return recipes;
+    }
+
+    /**
+    Adds every rule, prototype and recipe of another set after the existing ones.
+    Parameters:
+    other - the rules to add
+    */
+    public void addAll(UseRules other){
+        for(UseRule rule : other.rules){
+            add(rule.getEquipmentId(), rule.getTargetId(), rule.effects(), rule.getMessage());
+        }
+        for(GameObject prototype : other.prototypes){
+            addPrototype(prototype);
+        }
+        for(Recipe recipe : other.recipes){
+            addRecipe(recipe);
+        }
+    }
+
+    private static String pair(String equipmentId, String targetId){
+        return key(equipmentId) + '\0' + key(targetId);
+    }
+
+    //the order-independent key of a set of inputs
+    private static String inputs(String[] inputIds){
+        String[] keys = new String[inputIds.length];
+        for(int i = 0; i < keys.length; i++){
+            keys[i] = key(inputIds[i]);
+        }
+        Arrays.sort(keys);
+        return String.join("\0", keys);
+    }
+
+    private static String key(String s){
+        return s.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,72 @@
+package gameobjects;
+
+/**
+ * The shared, read-only definition of a world that game sessions are created from.
+ *
+ * <p>
+ * A session's {@code Map} reads rooms from its source and only asks for a private copy of a room when the
+ * session is about to change it, so a session holds just the rooms it has changed.
+ * </p>
+ */
+public interface WorldSource {
+
+    /**
+    Retrieves the name given to the player at the start of a game.
+    Returns:
+    the player's name
+    */
+    String getPlayerName();
+
+    /**
+    Retrieves the ID of the room a game starts in.
+    Returns:
+    the starting room's ID
+    */
+    String getStartRoomId();
+
+    /**
+    Retrieves the shared definition of a room, which sessions may read but must not change.
+    Parameters:
+    roomId - the ID of the room
+    Returns:
+    the shared room, or null if the world has no such room
+    */
+    Room getSharedRoom(String roomId);
+
+    /**
+    Creates a private copy of a room for one session to change.
+    Parameters:
+    roomId - the ID of the room
+    Returns:
+    a new copy of the room, or null if the world has no such room
+    */
+    Room copyRoom(String roomId);
+
+    /**
+    Creates the state for a new game in this world.
+    Returns:
+    a new GameState with its own player and a map backed by this world
+    */
+    GameState newGameState();
+
+    /**
+    Retrieves the world's exits compiled for fast moves.
+    Returns:
+    the exit graph, or null if the world does not compile one
+    */
+    ExitGraph getExitGraph();
+
+    /**
+    Retrieves where the world's objects lie when it is loaded.
+    Returns:
+    the object directory, or null if the world does not keep one
+    */
+    ObjectDirectory getObjectDirectory();
+
+    /**
+    Retrieves how often the world's room descriptions are reused and how often they are built, across every game.
+    Returns:
+    the world's description counters
+    */
+    RenderCounters getRenderCounters();
+}
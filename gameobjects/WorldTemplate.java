@@ -0,0 +1,128 @@
+package gameobjects;
+
+import java.util.ArrayList;
+
+/**
+ * An immutable world loaded once and shared by every game session played in it.
+ *
+ * <p>
+ * The template keeps the definition graph of rooms and their objects. Each new game gets a {@code Map} that
+ * reads the shared rooms and copies a room only when that game changes it, and a fresh {@code Player}, so the
+ * memory a session needs grows with what the player changes rather than with the size of the world.
+ * The exits are compiled once into an {@code ExitGraph} that every game moves through, and where each object lies
+ * is indexed once, on first use, into an {@code ObjectDirectory}.
+ * </p>
+ */
+public class WorldTemplate implements WorldSource {
+
+    private String playerName;
+    private Map rooms;
+    private ExitGraph exits;
+    private ObjectDirectory objects; //built on first use
+    private ArrayList<Objective> objectives;
+    private UseRules useRules;
+    private RenderCounters renderCounters;
+
+    /**
+    Creates a template from a fully loaded map. The map's rooms become shared and can no longer be changed.
+    Parameters:
+    playerName - the name given to the player at the start of a game
+    rooms - the loaded map, whose current room is where games start
+    */
+    public WorldTemplate(String playerName, Map rooms){
+        this(playerName, rooms, new ArrayList<>(0), new UseRules());
+    }
+
+    /**
+    Creates a template from a fully loaded map and the world's objectives and use rules. The map's rooms become shared and can no longer be changed.
+    Parameters:
+    playerName - the name given to the player at the start of a game
+    rooms - the loaded map, whose current room is where games start
+    objectives - the objectives every game in the world works towards
+    useRules - what using equipment does, and the objects it can spawn
+    */
+    public WorldTemplate(String playerName, Map rooms, ArrayList<Objective> objectives, UseRules useRules){
+        this.playerName = playerName;
+        this.objectives = objectives;
+        this.useRules = useRules;
+        this.rooms = rooms;
+        this.renderCounters = new RenderCounters();
+        for(Room room : rooms.getRooms()){
+            room.share(renderCounters);
+        }
+        this.exits = new ExitGraph(rooms);
+    }
+
+    public String getPlayerName(){
+        return playerName;
+    }
+
+    /**
+    Retrieves the objectives every game in the world works towards.
+    Returns:
+    the objectives, in the order the world declares them
+    */
+    public ArrayList<Objective> getObjectives(){
+        return objectives;
+    }
+
+    /**
+    Retrieves what using equipment does in this world.
+    Returns:
+    the use rules and prototypes
+    */
+    public UseRules getUseRules(){
+        return useRules;
+    }
+
+    public String getStartRoomId(){
+        return rooms.getCurrentRoom() != null ? rooms.getCurrentRoom().getId() : null;
+    }
+
+    public Room getSharedRoom(String roomId){
+        return rooms.getRoom(roomId);
+    }
+
+    public Room copyRoom(String roomId){
+        Room room = rooms.getRoom(roomId);
+        if(room == null){
+            return null;
+        }
+        return room.copy();
+    }
+
+    public ExitGraph getExitGraph(){
+        return exits;
+    }
+
+    public RenderCounters getRenderCounters(){
+        return renderCounters;
+    }
+
+    public synchronized ObjectDirectory getObjectDirectory(){
+        if(objects == null){
+            objects = new ObjectDirectory(rooms);
+        }
+        return objects;
+    }
+
+    /**
+    Retrieves the map holding the shared room definitions.
+    Returns:
+    the template's map
+    */
+    public Map getMap(){
+        return rooms;
+    }
+
+    /**
+    Creates the state for a new game in this world.
+    Returns:
+    a new GameState with its own player and a map backed by this template
+    */
+    public GameState newGameState(){
+        Map map = new Map(this);
+        map.setCurrentRoom(getStartRoomId());
+        return new GameState(map, new Player(playerName), objectives, useRules);
+    }
+}
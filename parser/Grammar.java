@@ -0,0 +1,187 @@
+package parser;
+
+import java.util.ArrayList;
+
+import commands.*;
+import gameobjects.Direction;
+
+/**
+ * Declares the command grammar as a table of verb patterns, each bound to the command it produces.
+ *
+ * <p>
+ * A pattern is a space separated list of elements: an upper case {@code TokenType} name matches one token of
+ * that type, a slot such as {@code <noun>} matches and binds the words of an argument, and an element wrapped in
+ * square brackets is optional. The slot kinds are {@code <noun>} (one or more VAR words, so "chocolate bar" binds
+ * as one name), {@code <direction>} (a single DIRECTION token) and {@code <word>} (one or more words of any type).
+ * The table is compiled once into a {@code GrammarAutomaton} that the parser runs over each line.
+ * </p>
+ */
+public class Grammar {
+
+    /**
+     * Builds the command for a matched pattern from the values bound to its slots, in slot order.
+     */
+    public interface CommandFactory {
+        Command create(String[] slots);
+    }
+
+    /**
+     * Builds the command for a matched pattern from the direction bound to its {@code <direction>} slot.
+     */
+    public interface DirectionFactory {
+        Command create(Direction direction);
+    }
+
+    /**
+     * A single pattern in the grammar table.
+     */
+    static class Rule {
+        final String pattern;
+        final String error;
+        final CommandFactory factory;
+        final DirectionFactory directionFactory; //set instead of factory for rules built from a direction
+        final ArrayList<Element> elements;
+        final int slots;
+
+        Rule(String pattern, String error, CommandFactory factory, DirectionFactory directionFactory, ArrayList<Element> elements, int slots){
+            this.pattern = pattern;
+            this.error = error;
+            this.factory = factory;
+            this.directionFactory = directionFactory;
+            this.elements = elements;
+            this.slots = slots;
+        }
+    }
+
+    /**
+     * One element of a pattern: the token types it accepts, the slot it binds (or -1) and whether it is optional or repeats.
+     */
+    static class Element {
+        final TokenType[] types;
+        final int slot;
+        final boolean optional;
+        final boolean repeat;
+
+        Element(TokenType[] types, int slot, boolean optional, boolean repeat){
+            this.types = types;
+            this.slot = slot;
+            this.optional = optional;
+            this.repeat = repeat;
+        }
+    }
+
+    private final ArrayList<Rule> rules;
+
+    ///Creates an empty grammar.
+    public Grammar(){
+        this.rules = new ArrayList<>();
+    }
+
+    /**
+    Creates the grammar for the game's built-in commands.
+    Returns:
+    the standard grammar table
+    */
+    public static Grammar standard(){
+        return new Grammar()
+                .directionRule("MOVE <direction>", "No direction specified", Move::towards)
+                .rule("MOVE <noun>", "No direction specified", slots -> new Move(slots[0]))
+                .directionRule("<direction>", "No direction specified", Move::towards)
+                .rule("GET <noun>", "No item specified", slots -> new Get(slots[0]))
+                .rule("DROP <noun>", "No item specified", slots -> new Drop(slots[0]))
+                .rule("LOOK <noun>", "No target specified", slots -> new Look(slots[0]))
+                .rule("STATUS <noun>", "No topic specified", slots -> new Status(slots[0]))
+                .rule("HELP [<word>]", "Invalid help command", slots -> new Help(slots[0]))
+                .rule("QUIT [<word>]", "Invalid quit command", slots -> new Quit())
+                .rule("USE <noun> PREPOSITION <noun>", "No equipment or target specified", slots -> new Use(slots[0], slots[1]))
+                .rule("COMBINE <noun> PREPOSITION <noun>", "No two items specified", slots -> new Combine(slots[0], slots[1]))
+                .rule("COMBINE <noun> PREPOSITION <noun> PREPOSITION <noun>", "No third item specified", slots -> new Combine(slots[0], slots[1], slots[2]))
+                .rule("COMBINE <noun> PREPOSITION <noun> PREPOSITION <noun> PREPOSITION <noun>", "No fourth item specified", slots -> new Combine(slots[0], slots[1], slots[2], slots[3]))
+                .rule("GOTO <noun>", "No room specified", slots -> new GoTo(slots[0]));
+    }
+
+    /**
+    Adds a pattern to the grammar.
+    Parameters:
+    pattern - the pattern, e.g. "USE <noun> PREPOSITION <noun>"
+    error - the message reported when input starts like this pattern but does not complete it
+    factory - builds the command from the bound slots
+    Returns:
+    this grammar, so rules can be chained
+    Throws:
+    IllegalArgumentException - if the pattern contains an unknown element
+    */
+    public Grammar rule(String pattern, String error, CommandFactory factory){
+        return add(pattern, error, factory, null);
+    }
+
+    /**
+    Adds a pattern whose command is built from the direction its {@code <direction>} slot binds, without building any strings.
+    Parameters:
+    pattern - the pattern, e.g. "MOVE <direction>"
+    error - the message reported when input starts like this pattern but does not complete it
+    factory - builds the command from the bound direction
+    Returns:
+    this grammar, so rules can be chained
+    Throws:
+    IllegalArgumentException - if the pattern contains an unknown element or does not bind a direction
+    */
+    public Grammar directionRule(String pattern, String error, DirectionFactory factory){
+        if(!pattern.contains("<direction>")){
+            throw new IllegalArgumentException("Pattern does not bind a direction: " + pattern);
+        }
+        return add(pattern, error, null, factory);
+    }
+
+    private Grammar add(String pattern, String error, CommandFactory factory, DirectionFactory directionFactory){
+        ArrayList<Element> elements = new ArrayList<>();
+        int slots = 0;
+        for(String part : pattern.trim().split("\\s+")){
+            boolean optional = part.startsWith("[") && part.endsWith("]");
+            if(optional){
+                part = part.substring(1, part.length() - 1);
+            }
+            if(part.startsWith("<") && part.endsWith(">")){
+                elements.add(slot(part, slots++, optional, pattern));
+            } else{
+                try{
+                    elements.add(new Element(new TokenType[]{TokenType.valueOf(part)}, -1, optional, false));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown element " + part + " in pattern: " + pattern);
+                }
+            }
+        }
+        rules.add(new Rule(pattern, error, factory, directionFactory, elements, slots));
+        return this;
+    }
+
+    private static Element slot(String part, int slot, boolean optional, String pattern){
+        switch(part){
+            case "<noun>":
+                return new Element(new TokenType[]{TokenType.VAR}, slot, optional, true);
+            case "<direction>":
+                return new Element(new TokenType[]{TokenType.DIRECTION}, slot, optional, false);
+            case "<word>":
+                ArrayList<TokenType> words = new ArrayList<>();
+                for(TokenType type : TokenType.values()){
+                    if(type != TokenType.EOL && type != TokenType.ERROR){
+                        words.add(type);
+                    }
+                }
+                return new Element(words.toArray(new TokenType[0]), slot, optional, true);
+            default:
+                throw new IllegalArgumentException("Unknown slot " + part + " in pattern: " + pattern);
+        }
+    }
+
+    /**
+    Compiles the grammar into a deterministic automaton.
+    Returns:
+    the compiled automaton
+    Throws:
+    IllegalStateException - if two patterns conflict, i.e. the same input would bind or complete differently
+    */
+    public GrammarAutomaton compile(){
+        return GrammarAutomaton.compile(rules);
+    }
+}
@@ -0,0 +1,189 @@
+package parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import commands.*;
+import gameobjects.Direction;
+
+/**
+ * A deterministic finite automaton compiled from a {@code Grammar}.
+ *
+ * <p>
+ * States are numbered from 0 (the start state) and transitions are stored in flat arrays indexed by
+ * {@code state * TokenType count + token type}, so each token costs one array read whatever the number of verbs.
+ * A transition may bind its token's value into an argument slot; reaching the end of the line in an accepting
+ * state creates the command of the pattern that state completes.
+ * </p>
+ */
+public class GrammarAutomaton {
+
+    private static final int TYPES = TokenType.values().length;
+
+    private final int[] next; //state * TYPES + type -> next state, or -1
+    private final int[] bind; //state * TYPES + type -> slot to append the token value to, or -1
+    private final Grammar.Rule[] accept; //pattern completed in each state, or null
+    private final String[] error; //message reported when input stops matching in each state
+    private final int slots;
+
+    private GrammarAutomaton(int[] next, int[] bind, Grammar.Rule[] accept, String[] error, int slots){
+        this.next = next;
+        this.bind = bind;
+        this.accept = accept;
+        this.error = error;
+        this.slots = slots;
+    }
+
+    static GrammarAutomaton compile(ArrayList<Grammar.Rule> rules){
+        Builder builder = new Builder();
+        int slots = 0;
+        for(Grammar.Rule rule : rules){
+            builder.add(rule);
+            slots = Math.max(slots, rule.slots);
+        }
+        return new GrammarAutomaton(Arrays.copyOf(builder.next, builder.states * TYPES), Arrays.copyOf(builder.bind, builder.states * TYPES),
+                builder.accept.toArray(new Grammar.Rule[0]), builder.error.toArray(new String[0]), slots);
+    }
+
+    /**
+    Retrieves the largest number of argument slots any pattern binds.
+    Returns:
+    the number of slot buffers a caller of {@link #run} must supply
+    */
+    public int getSlotCount(){
+        return slots;
+    }
+
+    /**
+    Runs the automaton over a line of tokens and builds the matching command.
+    Parameters:
+    tokens - the tokens of the line, normally terminated by an EOL token
+    slots - reusable buffers for the argument slots, at least {@link #getSlotCount()} long
+    Returns:
+    the command the line matches, with its arguments bound
+    Throws:
+    CommandErrorException - if the line does not match any pattern
+    */
+    public Command run(ArrayList<Token> tokens, StringBuilder[] slots) throws CommandErrorException{
+        for(StringBuilder slot : slots){
+            slot.setLength(0);
+        }
+
+        int state = 0;
+        Direction direction = null;
+        for(int i = 0; i < tokens.size(); i++){
+            Token token = tokens.get(i);
+            if(token.getTokenType() == TokenType.EOL){
+                break;
+            }
+            int index = state * TYPES + token.getTokenType().ordinal();
+            int target = next[index];
+            if(target < 0){
+                throw new CommandErrorException(error[state]);
+            }
+            int slot = bind[index];
+            if(slot >= 0){
+                if(token.getDirection() != null){
+                    direction = token.getDirection();
+                }
+                if(slots[slot].length() > 0){
+                    slots[slot].append(' ');
+                }
+                slots[slot].append(token.getValue());
+            }
+            state = target;
+        }
+
+        Grammar.Rule rule = accept[state];
+        if(rule == null){
+            throw new CommandErrorException(error[state]);
+        }
+        if(rule.directionFactory != null){
+            return rule.directionFactory.create(direction);
+        }
+        String[] values = new String[rule.slots];
+        for(int s = 0; s < rule.slots; s++){
+            values[s] = slots[s].length() > 0 ? slots[s].toString() : null;
+        }
+        return rule.factory.create(values);
+    }
+
+    //grows the transition table one pattern at a time
+    private static class Builder {
+        int[] next = new int[0];
+        int[] bind = new int[0];
+        int states = 0;
+        ArrayList<Grammar.Rule> accept = new ArrayList<>();
+        ArrayList<String> error = new ArrayList<>();
+
+        Builder(){
+            newState("Invalid command");
+        }
+
+        int newState(String message){
+            if(next.length < (states + 1) * TYPES){
+                int size = Math.max(TYPES * 8, next.length * 2);
+                int old = next.length;
+                next = Arrays.copyOf(next, size);
+                bind = Arrays.copyOf(bind, size);
+                Arrays.fill(next, old, size, -1);
+                Arrays.fill(bind, old, size, -1);
+            }
+            accept.add(null);
+            error.add(message);
+            return states++;
+        }
+
+        void add(Grammar.Rule rule){
+            ArrayList<Integer> current = new ArrayList<>();
+            current.add(0);
+
+            for(Grammar.Element element : rule.elements){
+                int target = -1;
+                //share the state when a single state already has exactly this transition, e.g. two MOVE patterns
+                if(current.size() == 1 && !element.optional){
+                    int index = current.get(0) * TYPES + element.types[0].ordinal();
+                    if(next[index] >= 0 && bind[index] == element.slot){
+                        target = next[index];
+                    }
+                }
+                if(target < 0){
+                    target = newState(rule.error);
+                }
+                for(int state : current){
+                    for(TokenType type : element.types){
+                        link(state, type, target, element.slot, rule);
+                    }
+                }
+                if(element.repeat){
+                    for(TokenType type : element.types){
+                        link(target, type, target, element.slot, rule);
+                    }
+                }
+
+                ArrayList<Integer> reached = new ArrayList<>();
+                reached.add(target);
+                if(element.optional){
+                    reached.addAll(current);
+                }
+                current = reached;
+            }
+
+            for(int state : current){
+                if(accept.get(state) != null && accept.get(state) != rule){
+                    throw new IllegalStateException("Patterns '" + accept.get(state).pattern + "' and '" + rule.pattern + "' accept the same input");
+                }
+                accept.set(state, rule);
+            }
+        }
+
+        private void link(int state, TokenType type, int target, int slot, Grammar.Rule rule){
+            int index = state * TYPES + type.ordinal();
+            if(next[index] >= 0 && (next[index] != target || bind[index] != slot)){
+                throw new IllegalStateException("Pattern '" + rule.pattern + "' conflicts with an earlier pattern on " + type);
+            }
+            next[index] = target;
+            bind[index] = slot;
+        }
+    }
+}
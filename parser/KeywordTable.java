@@ -0,0 +1,242 @@
+package parser;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import gameobjects.Direction;
+
+/**
+ * A compiled table of the words the tokeniser recognises, such as verbs, prepositions and directions.
+ *
+ * <p>
+ * The table is built once from a vocabulary file where each line has the form
+ * {@code type:canonical,synonym,...}, for example {@code get:get,take,grab}. Every word becomes a path in a
+ * trie that is flattened into arrays, so classifying a word walks one transition per character and never allocates.
+ * Besides exact words and synonyms, any prefix that leads to a single canonical entry is accepted as an
+ * abbreviation (e.g. "l" for "look" or "inv" for "inventory"); prepositions are only matched exactly.
+ * Matched words resolve to a shared token carrying the entry's type and canonical word.
+ * </p>
+ */
+public class KeywordTable {
+
+    ///The vocabulary file loaded by {@link #getDefault()} when it is present.
+    public static final String DEFAULT_FILE = "vocabulary.txt";
+
+    //used when the vocabulary file cannot be found, so the game still understands its core verbs
+    private static final String[] BUILT_IN = {
+            "use:use", "get:get,take,grab,pick", "drop:drop,discard", "look:look,examine,inspect",
+            "status:status", "help:help", "quit:quit", "move:move,go,walk", "combine:combine,mix", "goto:goto",
+            "preposition:on,using,with,and",
+            "direction:north,n", "direction:south,s", "direction:east,e", "direction:west,w",
+            "var:inventory", "var:room", "var:exits", "var:features", "var:player", "var:map", "var:score"
+    };
+
+    private final int[] charClass; //ASCII character -> alphabet index, or -1 if the character appears in no word
+    private final int alphabetSize;
+    private final int[] transitions; //node * alphabetSize + class -> next node, or -1
+    private final Token[] exact; //token for a word ending exactly at the node
+    private final Token[] abbreviation; //token for a prefix ending at the node when it is unambiguous
+
+    private KeywordTable(int[] charClass, int alphabetSize, int[] transitions, Token[] exact, Token[] abbreviation){
+        this.charClass = charClass;
+        this.alphabetSize = alphabetSize;
+        this.transitions = transitions;
+        this.exact = exact;
+        this.abbreviation = abbreviation;
+    }
+
+    /**
+    Retrieves the shared table built from the default vocabulary file, falling back to the built-in vocabulary if the file is missing.
+    Returns:
+    the default keyword table
+    */
+    public static KeywordTable getDefault(){
+        return DefaultHolder.TABLE;
+    }
+
+    //loads the default table once, on first use
+    private static class DefaultHolder {
+        static final KeywordTable TABLE = loadDefault();
+
+        private static KeywordTable loadDefault(){
+            File file = new File(DEFAULT_FILE);
+            if(file.isFile()){
+                try{
+                    return load(DEFAULT_FILE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return compile(Arrays.asList(BUILT_IN));
+        }
+    }
+
+    /**
+    Loads and compiles a keyword table from a vocabulary file.
+    Parameters:
+    filename - the vocabulary file to read
+    Returns:
+    the compiled keyword table
+    Throws:
+    IOException - if the file cannot be read
+    */
+    public static KeywordTable load(String filename) throws IOException {
+        ArrayList<String> lines = new ArrayList<>();
+        try(BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while((line = reader.readLine()) != null){
+                lines.add(line);
+            }
+        }
+        return compile(lines);
+    }
+
+    /**
+    Compiles a keyword table from vocabulary lines of the form type:canonical,synonym,...
+    Blank lines are ignored.
+    Parameters:
+    lines - the vocabulary lines
+    Returns:
+    the compiled keyword table
+    Throws:
+    IllegalArgumentException - if a line is malformed or names an unknown token type
+    */
+    public static KeywordTable compile(Iterable<String> lines){
+        //build a pointer-based trie first, then flatten it
+        ArrayList<HashMap<Character, Integer>> children = new ArrayList<>();
+        ArrayList<Token> exactTokens = new ArrayList<>();
+        ArrayList<HashSet<Token>> reachable = new ArrayList<>(); //abbreviable entries below each node
+        children.add(new HashMap<>());
+        exactTokens.add(null);
+        reachable.add(new HashSet<>());
+        HashSet<Character> alphabet = new HashSet<>();
+
+        int lineNumber = 0;
+        for(String line : lines){
+            lineNumber++;
+            line = line.trim();
+            if(line.isEmpty()){
+                continue;
+            }
+            int colon = line.indexOf(':');
+            if(colon <= 0 || colon == line.length() - 1){
+                throw new IllegalArgumentException("Malformed vocabulary line " + lineNumber + ": " + line);
+            }
+            TokenType type;
+            try{
+                type = TokenType.valueOf(line.substring(0, colon).trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown token type on vocabulary line " + lineNumber + ": " + line);
+            }
+            String[] words = line.substring(colon + 1).split(",");
+            String canonical = words[0].trim().toLowerCase();
+            Token token = type == TokenType.DIRECTION ? new Token(canonical, direction(canonical, lineNumber)) : new Token(type, canonical);
+            boolean abbreviable = type != TokenType.PREPOSITION;
+
+            for(String word : words){
+                word = word.trim().toLowerCase();
+                if(word.isEmpty()){
+                    continue;
+                }
+                int node = 0;
+                for(int i = 0; i < word.length(); i++){
+                    char c = word.charAt(i);
+                    if(c >= 128){
+                        throw new IllegalArgumentException("Non-ASCII word on vocabulary line " + lineNumber + ": " + word);
+                    }
+                    alphabet.add(c);
+                    Integer next = children.get(node).get(c);
+                    if(next == null){
+                        next = children.size();
+                        children.add(new HashMap<>());
+                        exactTokens.add(null);
+                        reachable.add(new HashSet<>());
+                        children.get(node).put(c, next);
+                    }
+                    node = next;
+                    if(abbreviable){
+                        reachable.get(node).add(token);
+                    }
+                }
+                exactTokens.set(node, token);
+            }
+        }
+
+        //flatten into arrays indexed by node and character class
+        int[] charClass = new int[128];
+        Arrays.fill(charClass, -1);
+        int alphabetSize = 0;
+        for(char c : alphabet){
+            charClass[c] = alphabetSize++;
+        }
+        int nodes = children.size();
+        int[] transitions = new int[Math.max(1, nodes * alphabetSize)];
+        Arrays.fill(transitions, -1);
+        Token[] exact = new Token[nodes];
+        Token[] abbreviation = new Token[nodes];
+        for(int node = 0; node < nodes; node++){
+            for(java.util.Map.Entry<Character, Integer> child : children.get(node).entrySet()){
+                transitions[node * alphabetSize + charClass[child.getKey()]] = child.getValue();
+            }
+            exact[node] = exactTokens.get(node);
+            if(reachable.get(node).size() == 1){
+                abbreviation[node] = reachable.get(node).iterator().next();
+            }
+        }
+        return new KeywordTable(charClass, alphabetSize, transitions, exact, abbreviation);
+    }
+
+    /**
+    Classifies the lowercase word held in chars[start..start+length).
+    Exact words and synonyms take priority over abbreviations.
+    Parameters:
+    chars - the buffer holding the word
+    start - the index of the first character of the word
+    length - the number of characters in the word
+    Returns:
+    the shared token for the word, or null if the word is not in the vocabulary
+    */
+    public Token lookup(char[] chars, int start, int length){
+        if(length == 0){
+            return null;
+        }
+        int node = 0;
+        for(int i = start; i < start + length; i++){
+            char c = chars[i];
+            if(c >= 128 || charClass[c] < 0){
+                return null;
+            }
+            node = transitions[node * alphabetSize + charClass[c]];
+            if(node < 0){
+                return null;
+            }
+        }
+        if(exact[node] != null){
+            return exact[node];
+        }
+        return abbreviation[node];
+    }
+
+    /**
+    Classifies a single lowercase word.
+    Parameters:
+    word - the word to classify
+    Returns:
+    the shared token for the word, or null if the word is not in the vocabulary
+    */
+    public Token lookup(String word){
+        return lookup(word.toCharArray(), 0, word.length());
+    }
+
+    //the direction a direction line's canonical word stands for
+    private static Direction direction(String canonical, int lineNumber){
+        Direction direction = Direction.fromName(canonical);
+        if(direction == null){
+            throw new IllegalArgumentException("Unknown direction on vocabulary line " + lineNumber + ": " + canonical);
+        }
+        return direction;
+    }
+}
@@ -1,5 +1,7 @@
 package parser;
 
+import gameobjects.Direction;
+
 /**
  * Represents a token in the parsing process, consisting of a {@code TokenType} and an optional value.
  *
@@ -12,6 +14,7 @@ public class Token {
 
     private TokenType tokenType;
     private String value;
+    private Direction direction;
     /**
     Constructs a new Token with the specified type and value.
     Parameters:
@@ -23,6 +26,17 @@ public class Token {
         this.value = value;
     }
 
+    /**
+    Constructs a new DIRECTION token.
+    Parameters:
+    value - the canonical word of the direction
+    direction - the direction the word stands for
+    */
+    public Token(String value, Direction direction){
+        this(TokenType.DIRECTION, value);
+        this.direction = direction;
+    }
+
     /**
     Constructs a new Token with the specified type and no associated value.
     Parameters:
@@ -32,6 +46,18 @@ public class Token {
         this.tokenType = tokenType;
     }
 
+    /**
+    Re-targets a pooled token at a new type and value so the tokeniser can reuse it on the next line.
+    Parameters:
+    tokenType - the type of the token
+    value - the value associated with the token
+    */
+    void set(TokenType tokenType, String value){
+        this.tokenType = tokenType;
+        this.value = value;
+        this.direction = null;
+    }
+
     /**
     Retrieves the type of this token.
     Returns:
@@ -52,4 +78,13 @@ public class Token {
         }
         return null;
     }
+
+    /**
+    Retrieves the direction a DIRECTION token stands for.
+    Returns:
+    the direction, or null for other tokens
+    */
+    public Direction getDirection(){
+        return direction;
+    }
 }
@@ -59,6 +59,11 @@ public enum TokenType {
      */
     MOVE,
 
+    /**
+     * Represents a compass direction such as "north" or its abbreviation "n".
+     */
+    DIRECTION,
+
     /**
      * Represents a preposition such as "on", "with", or "using".
      */
@@ -69,5 +74,10 @@ public enum TokenType {
      */
     EOL,
     
-    COMBINE;
+    COMBINE,
+
+    /**
+     * Represents the "goto" command.
+     */
+    GOTO;
 }
@@ -8,18 +8,40 @@ import java.util.ArrayList;
  *
  * <p>
  * The tokeniser identifies keywords, variables, and special symbols, assigning each a {@code TokenType}.
+ * Input is scanned once into a reusable character buffer; keywords are classified by a {@code KeywordTable}
+ * straight from that buffer and map onto its shared tokens, while variable tokens are recycled from a
+ * per-tokeniser pool, so a turn only allocates the strings of its variables.
  * </p>
  */
 public class Tokeniser {
 
+    private static final Token EOL_TOKEN = new Token(TokenType.EOL);
+
+    private KeywordTable keywords;
     private ArrayList<Token> tokens;
+    private ArrayList<Token> varPool; //reusable VAR tokens, handed out in order on each line
+    private char[] buffer; //lowercased copy of the current line
 
+    ///Creates a tokeniser that uses the default vocabulary.
     public Tokeniser(){
+        this(KeywordTable.getDefault());
+    }
+
+    /**
+    Creates a tokeniser that classifies words with the given keyword table.
+    Parameters:
+    keywords - the vocabulary to recognise
+    */
+    public Tokeniser(KeywordTable keywords){
+        this.keywords = keywords;
         this.tokens = new ArrayList<>();
+        this.varPool = new ArrayList<>();
+        this.buffer = new char[64];
     }
 
     /**
     Retrieves the list of tokens generated by the tokeniser.
+    The list and the tokens in it are reused by the next call to tokenise, so callers must not hold on to them across lines.
     Returns:
     an ArrayList of Token objects
     */
@@ -43,61 +65,58 @@ public class Tokeniser {
 
     /**
     Tokenises the input string into a list of Token objects based on predefined keywords and patterns.
-    Keywords such as "move", "get", "drop", and others are assigned specific TokenTypes. Words that do not match keywords are treated as variables and assigned the VAR type.
+    Keywords such as "move", "get", "drop", and others are assigned specific TokenTypes, and synonyms or abbreviations carry their canonical word as the value. Words that do not match keywords are treated as variables and assigned the VAR type.
+    The input is walked once: each character is lowercased into the buffer and words are classified straight from the buffer without building intermediate strings.
 
     Parameters:
     s - the input string to tokenise
     */
     public void tokenise(String s){
         tokens.clear();
-        s = sanitise(s);
+        int vars = 0; //number of pooled VAR tokens used on this line
 
-        String[] words = s.split("\\s+");
+        if(s != null){
+            int length = s.length();
+            if(buffer.length < length){
+                buffer = new char[Math.max(length, buffer.length * 2)];
+            }
 
-        for(String word: words) {
-            TokenType type = getTokenType(word);
+            int i = 0;
+            while(i < length){
+                //skip whitespace between words
+                while(i < length && Character.isWhitespace(s.charAt(i))){
+                    i++;
+                }
+                if(i == length){
+                    break;
+                }
 
-            if(type == TokenType.ERROR){
-                tokens.add(new Token(type, word));
-            } else if(type == TokenType.VAR){
-                tokens.add(new Token(type, word));
-            } else{
-                tokens.add(new Token(type, word));
-            }
-        }
-        tokens.add(new Token(TokenType.EOL));
-    }
+                //copy the word into the buffer, lowercasing as we go
+                int start = i;
+                while(i < length && !Character.isWhitespace(s.charAt(i))){
+                    char c = s.charAt(i);
+                    if(c >= 'A' && c <= 'Z'){
+                        c = (char) (c + ('a' - 'A'));
+                    } else if(c >= 128){
+                        c = Character.toLowerCase(c);
+                    }
+                    buffer[i] = c;
+                    i++;
+                }
 
-    private TokenType getTokenType(String word){
-        switch(word){
-            case "use":
-                return TokenType.USE;
-            case "get":
-                return TokenType.GET;
-            case "drop":
-                return TokenType.DROP;
-            case "look":
-                return TokenType.LOOK;
-            case "status":
-                return TokenType.STATUS;
-            case "help":
-                return TokenType.HELP;
-            case "quit":
-                return TokenType.QUIT;
-            case "move":
-                return TokenType.MOVE;
-            case "combine":
-                return TokenType.COMBINE;
-            case "on":
-                return TokenType.PREPOSITION;
-            case "using":
-                return TokenType.PREPOSITION;
-            case "with":
-                return TokenType.PREPOSITION;
-            case "and":
-                return TokenType.PREPOSITION;
-            default:
-                return TokenType.VAR;
+                Token keyword = keywords.lookup(buffer, start, i - start);
+                if(keyword != null){
+                    tokens.add(keyword);
+                } else{
+                    if(vars == varPool.size()){
+                        varPool.add(new Token(TokenType.VAR));
+                    }
+                    Token var = varPool.get(vars++);
+                    var.set(TokenType.VAR, new String(buffer, start, i - start));
+                    tokens.add(var);
+                }
+            }
         }
+        tokens.add(EOL_TOKEN);
     }
 }
@@ -0,0 +1,74 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of text that sessions send over and over, such as the introduction, the general help and room
+ * descriptions, held as pre-encoded read-only UTF-8 buffers.
+ *
+ * <p>
+ * Cached text is written by handing out a duplicate of the shared buffer, so it is never re-encoded.
+ * Lookups hash the string, which is free for constants and memoised strings since a string caches its hash.
+ * The cache stops admitting entries once it is full; anything else is encoded on demand.
+ * </p>
+ */
+public class EncodedTextCache {
+
+    private ConcurrentHashMap<String, ByteBuffer> buffers;
+    private int capacity;
+
+    /**
+    Creates a cache that holds at most the given number of texts.
+    Parameters:
+    capacity - the maximum number of cached texts
+    */
+    public EncodedTextCache(int capacity){
+        this.buffers = new ConcurrentHashMap<>();
+        this.capacity = capacity;
+    }
+
+    /**
+    Adds a text to the cache, regardless of whether it is full; used for text known up front.
+    Parameters:
+    text - the text to cache
+    */
+    public void preload(String text){
+        buffers.computeIfAbsent(text, EncodedTextCache::encodeReadOnly);
+    }
+
+    /**
+    Retrieves a buffer holding the UTF-8 encoding of a text, ready to be written.
+    Parameters:
+    text - the text to encode
+    cacheable - whether the text is world text likely to be sent again, which may be added to the cache; text a client
+    can influence must not be, as entries are never evicted
+    Returns:
+    a buffer positioned at the start of the encoded text
+    */
+    public ByteBuffer encode(String text, boolean cacheable){
+        ByteBuffer cached = buffers.get(text);
+        if(cached != null){
+            return cached.duplicate();
+        }
+        ByteBuffer encoded = encodeReadOnly(text);
+        if(cacheable && buffers.size() < capacity){
+            buffers.putIfAbsent(text, encoded);
+        }
+        return encoded.duplicate();
+    }
+
+    /**
+    Retrieves the number of cached texts.
+    Returns:
+    the number of entries
+    */
+    public int size(){
+        return buffers.size();
+    }
+
+    private static ByteBuffer encodeReadOnly(String text){
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,255 @@
+package server;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import engine.*;
+import gameobjects.*;
+import utils.*;
+
+/**
+ * A line-oriented TCP game server that runs one game per connection, telnet style.
+ *
+ * <p>
+ * The world file is loaded once into a shared {@code WorldSource}, either whole or, with a room cache budget, a room at a
+ * time as games enter them; each connection gets its own
+ * {@code GameEngine} with a game in that world and is served by its own thread. On a JVM with virtual threads every session runs on a virtual thread, so mostly idle
+ * players cost little more than their game state; older JVMs fall back to a pool of platform threads.
+ * The number of sessions is capped, idle sessions are closed, and {@link #shutdown()} lets in-flight turns
+ * finish before connections are closed.
+ * </p>
+ */
+public class GameServer {
+
+    ///The prompt written after each response, as on the console.
+    public static final String PROMPT = "\n>> ";
+
+    private ServerConfig config;
+    private WorldSource world; //loaded once and shared by every session
+    private ServerSocket serverSocket;
+    private ExecutorService sessions;
+    private Semaphore permits;
+    private Set<Session> active;
+    private volatile boolean closing;
+
+    /**
+    Creates a server with the given configuration. The server does not listen until started.
+    Parameters:
+    config - the server configuration
+    */
+    public GameServer(ServerConfig config){
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSessions());
+        this.active = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+    Starts the server from the command line.
+    Parameters:
+    args - [port] [world file] [max sessions] [idle timeout seconds]
+    Throws:
+    IOException - if the server socket cannot be opened
+    */
+    public static void main(String[] args) throws IOException {
+        GameServer server = new GameServer(ServerConfig.fromArgs(args));
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::shutdown));
+        System.out.println("Game server listening on port " + server.getPort());
+    }
+
+    /**
+    Opens the server socket and starts accepting connections on a background thread.
+    Throws:
+    IOException - if the server socket cannot be opened
+    */
+    public void start() throws IOException {
+        world = GameEngine.loadWorld(config.getWorldFile(), config.getRoomCacheBytes());
+        serverSocket = new ServerSocket(config.getPort());
+        sessions = newSessionExecutor();
+        Thread acceptor = new Thread(this::acceptLoop, "game-server-acceptor");
+        acceptor.start();
+    }
+
+    /**
+    Retrieves the port the server is listening on, which is useful when the configuration asked for any free port.
+    Returns:
+    the local port
+    */
+    public int getPort(){
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+    Retrieves the number of sessions currently connected.
+    Returns:
+    the number of active sessions
+    */
+    public int getActiveSessions(){
+        return active.size();
+    }
+
+    /**
+    Shuts the server down gracefully: stops accepting connections, lets sessions finish the turn they are playing,
+    closes idle sessions, and after the configured grace period closes whatever remains.
+    */
+    public void shutdown(){
+        if(closing){
+            return;
+        }
+        closing = true;
+        try{
+            serverSocket.close();
+        } catch (IOException e) {
+            //already closed
+        }
+        for(Session session : active){
+            session.closeIfIdle();
+        }
+        sessions.shutdown();
+        try{
+            if(!sessions.awaitTermination(config.getShutdownGraceMillis(), TimeUnit.MILLISECONDS)){
+                for(Session session : active){
+                    session.close();
+                }
+                sessions.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //uses a virtual thread per session where the JVM supports them, otherwise a platform thread per session
+    private static ExecutorService newSessionExecutor(){
+        try{
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "game-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void acceptLoop(){
+        while(!closing){
+            Socket socket;
+            try{
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if(!closing){
+                    System.out.println("Accept failed: " + e.getMessage());
+                }
+                continue;
+            }
+            if(!permits.tryAcquire()){
+                reject(socket, "The server is full, please try again later.");
+                continue;
+            }
+            Session session = new Session(socket);
+            active.add(session);
+            try{
+                sessions.execute(session);
+            } catch (RejectedExecutionException e) {
+                active.remove(session);
+                permits.release();
+                reject(socket, "The server is shutting down.");
+            }
+        }
+    }
+
+    private static void reject(Socket socket, String message){
+        try(Socket s = socket){
+            s.getOutputStream().write((message + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            //the client has gone; nothing to tell it
+        }
+    }
+
+    /**
+     * A single connection and the game played on it.
+     */
+    private class Session implements Runnable {
+
+        private Socket socket;
+        private volatile boolean busy; //true while a turn is being played
+
+        Session(Socket socket){
+            this.socket = socket;
+        }
+
+        public void run(){
+            try(Socket s = socket){
+                if(config.getIdleTimeoutMillis() > 0){
+                    s.setSoTimeout((int) Math.min(Integer.MAX_VALUE, config.getIdleTimeoutMillis()));
+                }
+                BufferedReader reader = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+                Writer writer = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8));
+
+                GameEngine engine = new GameEngine(world);
+                send(writer, engine.start());
+                while(!engine.isFinished() && !closing){
+                    String line;
+                    try{
+                        line = reader.readLine();
+                    } catch (SocketTimeoutException e) {
+                        send(writer, "You have been idle for too long. Goodbye.\n", false);
+                        return;
+                    }
+                    if(line == null){
+                        break;
+                    }
+                    busy = true;
+                    String response = engine.submit(line);
+                    send(writer, response, !engine.isFinished());
+                    busy = false;
+                }
+                if(closing && !engine.isFinished()){
+                    send(writer, "\nThe server is shutting down. Goodbye.\n", false);
+                }
+            } catch (IOException e) {
+                //connection dropped; the session simply ends
+            } catch (RuntimeException e) {
+                System.out.println("Session failed: " + e);
+            } finally {
+                active.remove(this);
+                permits.release();
+            }
+        }
+
+        private void send(Writer writer, String text) throws IOException {
+            send(writer, text, true);
+        }
+
+        private void send(Writer writer, String text, boolean prompt) throws IOException {
+            writer.write(text);
+            writer.write('\n');
+            if(prompt){
+                writer.write(PROMPT);
+            }
+            writer.flush();
+        }
+
+        //stops a session that is waiting for input; a session in the middle of a turn finishes it first
+        void closeIfIdle(){
+            if(!busy){
+                try{
+                    socket.shutdownInput();
+                } catch (IOException e) {
+                    //already closed
+                }
+            }
+        }
+
+        void close(){
+            try{
+                socket.close();
+            } catch (IOException e) {
+                //already closed
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package server;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A simple load generator for comparing the game servers: it opens a number of connections, plays a fixed
+ * script of turns on each and reports throughput and turn latency.
+ */
+public class LoadClient {
+
+    private static final String[] SCRIPT = {
+            "look room", "move east", "look room", "help", "move west", "status inventory", "look exits"
+    };
+
+    /**
+    Runs the load test.
+    Parameters:
+    args - host port connections turns-per-connection
+    Throws:
+    InterruptedException - if interrupted while waiting for the connections to finish
+    */
+    public static void main(String[] args) throws InterruptedException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 4000;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int turns = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+
+        long[] latencies = new long[connections * turns];
+        AtomicLong failures = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(connections);
+        long start = System.nanoTime();
+        for(int c = 0; c < connections; c++){
+            int offset = c * turns;
+            Thread thread = new Thread(() -> {
+                try{
+                    play(host, port, turns, latencies, offset);
+                } catch (IOException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        long[] played = Arrays.stream(latencies).filter(l -> l > 0).sorted().toArray();
+        System.out.println("Connections: " + connections + ", failed: " + failures.get());
+        System.out.println("Turns: " + played.length + " in " + elapsed / 1_000_000 + " ms (" + (played.length * 1_000_000_000L / Math.max(1, elapsed)) + " turns/s)");
+        if(played.length > 0){
+            System.out.println("Latency p50: " + played[played.length / 2] / 1000 + " us, p99: " + played[(int) (played.length * 0.99)] / 1000 + " us");
+        }
+    }
+
+    private static void play(String host, int port, int turns, long[] latencies, int offset) throws IOException {
+        try(Socket socket = new Socket(host, port)){
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            awaitPrompt(in);
+            for(int t = 0; t < turns; t++){
+                byte[] line = (SCRIPT[t % SCRIPT.length] + "\r\n").getBytes(StandardCharsets.UTF_8);
+                long sent = System.nanoTime();
+                out.write(line);
+                out.flush();
+                awaitPrompt(in);
+                latencies[offset + t] = System.nanoTime() - sent;
+            }
+        }
+    }
+
+    //reads until the server's ">> " prompt
+    private static void awaitPrompt(InputStream in) throws IOException {
+        int matched = 0;
+        byte[] prompt = ">> ".getBytes(StandardCharsets.UTF_8);
+        while(matched < prompt.length){
+            int b = in.read();
+            if(b < 0){
+                throw new EOFException("Connection closed before the prompt");
+            }
+            matched = b == prompt[matched] ? matched + 1 : (b == prompt[0] ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package server;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import commands.*;
+import engine.*;
+import gameobjects.*;
+import utils.*;
+
+/**
+ * A non-blocking alternative to {@code GameServer} where a few event-loop threads serve every connection.
+ *
+ * <p>
+ * Each event loop owns a {@code Selector} and a reusable read buffer. Input bytes are assembled into lines,
+ * each line is played on the connection's {@code GameEngine}, and the response is queued and written with a
+ * gathering write. Text that sessions send over and over (the introduction, the general help, the descriptions
+ * of rooms no session has changed and the prompt) comes from an {@code EncodedTextCache}, so it is written without
+ * being encoded again. Text a client can choose or a session has changed is never cached, so clients cannot fill the
+ * cache.
+ * The protocol, session limit and idle timeout are the same as {@code GameServer}'s so the two can be compared
+ * under the same load.
+ * </p>
+ */
+public class NioGameServer {
+
+    private static final int MAX_LINE = 4096; //longest input line accepted, in bytes
+    private static final int MAX_GATHER = 16; //buffers handed to a single gathering write
+    private static final String RESPONSE_END = "\n" + GameServer.PROMPT;
+
+    private ServerConfig config;
+    private WorldSource world; //loaded once and shared by every session
+    private EncodedTextCache cache;
+    private EventLoop[] loops;
+    private Thread[] threads;
+    private ServerSocketChannel serverChannel;
+    private AtomicInteger sessions;
+    private int nextLoop;
+    private volatile boolean closing;
+
+    /**
+    Creates a server with the given configuration and number of event loops. The server does not listen until started.
+    Parameters:
+    config - the server configuration
+    eventLoops - the number of event-loop threads
+    */
+    public NioGameServer(ServerConfig config, int eventLoops){
+        this.config = config;
+        this.cache = new EncodedTextCache(10000);
+        this.loops = new EventLoop[Math.max(1, eventLoops)];
+        this.threads = new Thread[loops.length];
+        this.sessions = new AtomicInteger();
+
+        cache.preload(GameEngine.INTRO);
+        cache.preload(Help.GENERAL_HELP);
+        cache.preload(RESPONSE_END);
+        cache.preload("\n");
+    }
+
+    /**
+    Starts the server from the command line.
+    Parameters:
+    args - [port] [world file] [max sessions] [idle timeout seconds] [event loops]
+    Throws:
+    IOException - if the server socket cannot be opened
+    */
+    public static void main(String[] args) throws IOException {
+        int eventLoops = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        NioGameServer server = new NioGameServer(ServerConfig.fromArgs(args), eventLoops);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::shutdown));
+        System.out.println("NIO game server listening on port " + server.getPort() + " with " + eventLoops + " event loops");
+    }
+
+    /**
+    Opens the server socket and starts the event loops.
+    Throws:
+    IOException - if the server socket or a selector cannot be opened
+    */
+    public void start() throws IOException {
+        world = GameEngine.loadWorld(config.getWorldFile(), config.getRoomCacheBytes());
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(config.getPort()));
+        serverChannel.configureBlocking(false);
+        for(int i = 0; i < loops.length; i++){
+            loops[i] = new EventLoop();
+        }
+        serverChannel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        for(int i = 0; i < loops.length; i++){
+            threads[i] = new Thread(loops[i], "game-event-loop-" + i);
+            threads[i].start();
+        }
+    }
+
+    /**
+    Retrieves the port the server is listening on.
+    Returns:
+    the local port
+    Throws:
+    IOException - if the server socket is closed
+    */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+    Retrieves the number of sessions currently connected.
+    Returns:
+    the number of active sessions
+    */
+    public int getActiveSessions(){
+        return sessions.get();
+    }
+
+    /**
+    Shuts the server down gracefully. Turns are played on the event loops, so a turn in progress always completes;
+    each loop then says goodbye to its sessions, flushes what it can and closes them.
+    */
+    public void shutdown(){
+        if(closing){
+            return;
+        }
+        closing = true;
+        for(EventLoop loop : loops){
+            loop.selector.wakeup();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getShutdownGraceMillis());
+        try{
+            for(Thread thread : threads){
+                thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            }
+            serverChannel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            //already closed
+        }
+    }
+
+    //hands a newly accepted connection to the next event loop
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while((channel = serverChannel.accept()) != null){
+            channel.configureBlocking(false);
+            if(sessions.incrementAndGet() > config.getMaxSessions()){
+                sessions.decrementAndGet();
+                channel.write(ByteBuffer.wrap("The server is full, please try again later.\n".getBytes(StandardCharsets.UTF_8)));
+                channel.close();
+                continue;
+            }
+            EventLoop loop = loops[nextLoop];
+            nextLoop = (nextLoop + 1) % loops.length;
+            loop.incoming.add(channel);
+            loop.selector.wakeup();
+        }
+    }
+
+    /**
+     * One event-loop thread and the connections registered with its selector.
+     */
+    private class EventLoop implements Runnable {
+
+        private Selector selector;
+        private ConcurrentLinkedQueue<SocketChannel> incoming;
+        private ByteBuffer readBuffer; //shared by every connection on this loop
+        private ByteBuffer[] gather; //scratch array for gathering writes
+        private long nextSweep;
+
+        EventLoop() throws IOException {
+            this.selector = Selector.open();
+            this.incoming = new ConcurrentLinkedQueue<>();
+            this.readBuffer = ByteBuffer.allocateDirect(8192);
+            this.gather = new ByteBuffer[MAX_GATHER];
+        }
+
+        public void run(){
+            try{
+                while(!closing){
+                    selector.select(1000);
+                    register();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while(keys.hasNext()){
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handle(key);
+                    }
+                    sweepIdle();
+                }
+            } catch (IOException e) {
+                System.out.println("Event loop failed: " + e.getMessage());
+            } finally {
+                drain();
+            }
+        }
+
+        private void register(){
+            SocketChannel channel;
+            while((channel = incoming.poll()) != null){
+                try{
+                    Connection connection = new Connection(channel);
+                    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                    connection.queue(GameEngine.INTRO, true);
+                    connection.send(connection.engine.describeRoom(), true, true);
+                    flush(connection);
+                } catch (IOException | RuntimeException e) {
+                    sessions.decrementAndGet();
+                    try{
+                        channel.close();
+                    } catch (IOException ignored) {
+                        //already closed
+                    }
+                }
+            }
+        }
+
+        private void handle(SelectionKey key){
+            try{
+                if(key.isValid() && key.isAcceptable()){
+                    accept();
+                    return;
+                }
+                Connection connection = (Connection) key.attachment();
+                if(key.isValid() && key.isWritable()){
+                    flush(connection);
+                }
+                if(key.isValid() && key.isReadable()){
+                    read(connection);
+                }
+            } catch (IOException e) {
+                if(key.attachment() instanceof Connection){
+                    close((Connection) key.attachment());
+                }
+            }
+        }
+
+        private void read(Connection connection) throws IOException {
+            readBuffer.clear();
+            int read = connection.channel.read(readBuffer);
+            if(read < 0){
+                close(connection);
+                return;
+            }
+            connection.lastActive = System.nanoTime();
+            readBuffer.flip();
+            while(readBuffer.hasRemaining() && !connection.closeAfterWrite){
+                byte b = readBuffer.get();
+                if(b == '\n'){
+                    int length = connection.lineLength;
+                    if(length > 0 && connection.line[length - 1] == '\r'){
+                        length--;
+                    }
+                    String line = new String(connection.line, 0, length, StandardCharsets.UTF_8);
+                    connection.lineLength = 0;
+                    play(connection, line);
+                } else if(connection.lineLength < MAX_LINE){
+                    if(connection.lineLength == connection.line.length){
+                        connection.line = Arrays.copyOf(connection.line, Math.min(MAX_LINE, connection.line.length * 2));
+                    }
+                    connection.line[connection.lineLength++] = b;
+                }
+            }
+            flush(connection);
+        }
+
+        private void play(Connection connection, String line){
+            GameEngine engine = connection.engine;
+            String response = engine.submit(line);
+            CommandType type = engine.getLastCommandType();
+            connection.send(response, type == CommandType.LOOK && isSharedRoomText(engine, response), !engine.isFinished());
+            if(engine.isFinished()){
+                connection.closeAfterWrite = true;
+            }
+        }
+
+        //whether a response is the description of a room every session shares, rather than text of the session's own or the client's
+        private boolean isSharedRoomText(GameEngine engine, String response){
+            Room room = engine.getGameState().getMap().getCurrentRoom();
+            return room != null && room.isShared() && response == room.describe(); //describe() hands out the same string until the room changes
+        }
+
+        //writes as much queued output as the socket accepts, gathering several buffers per write
+        private void flush(Connection connection) throws IOException {
+            ArrayDeque<ByteBuffer> pending = connection.pending;
+            while(!pending.isEmpty()){
+                int count = 0;
+                for(ByteBuffer buffer : pending){
+                    if(count == MAX_GATHER){
+                        break;
+                    }
+                    gather[count++] = buffer;
+                }
+                connection.channel.write(gather, 0, count);
+                Arrays.fill(gather, 0, count, null);
+                while(!pending.isEmpty() && !pending.peekFirst().hasRemaining()){
+                    pending.pollFirst();
+                }
+                if(!pending.isEmpty() && pending.peekFirst().hasRemaining()){
+                    break; //the socket is full; wait until it is writable again
+                }
+            }
+            if(pending.isEmpty()){
+                if(connection.closeAfterWrite){
+                    close(connection);
+                } else if(connection.key.isValid()){
+                    connection.key.interestOps(SelectionKey.OP_READ);
+                }
+            } else if(connection.key.isValid()){
+                connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+
+        private void sweepIdle(){
+            long now = System.nanoTime();
+            if(now < nextSweep || config.getIdleTimeoutMillis() <= 0){
+                return;
+            }
+            nextSweep = now + TimeUnit.SECONDS.toNanos(1);
+            long limit = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+            for(SelectionKey key : selector.keys()){
+                if(key.attachment() instanceof Connection){
+                    Connection connection = (Connection) key.attachment();
+                    if(!connection.closeAfterWrite && now - connection.lastActive > limit){
+                        connection.send("You have been idle for too long. Goodbye.\n", true, false);
+                        connection.closeAfterWrite = true;
+                        try{
+                            flush(connection);
+                        } catch (IOException e) {
+                            close(connection);
+                        }
+                    }
+                }
+            }
+        }
+
+        //says goodbye to every connection on this loop and closes it
+        private void drain(){
+            for(SelectionKey key : selector.keys()){
+                if(key.attachment() instanceof Connection){
+                    Connection connection = (Connection) key.attachment();
+                    if(!connection.closeAfterWrite){
+                        connection.send("\nThe server is shutting down. Goodbye.\n", true, false);
+                    }
+                    try{
+                        flush(connection);
+                    } catch (IOException e) {
+                        //the client has gone
+                    }
+                    close(connection);
+                }
+            }
+            try{
+                selector.close();
+            } catch (IOException e) {
+                //already closed
+            }
+        }
+
+        private void close(Connection connection){
+            if(connection.closed){
+                return;
+            }
+            connection.closed = true;
+            sessions.decrementAndGet();
+            connection.key.cancel();
+            try{
+                connection.channel.close();
+            } catch (IOException e) {
+                //already closed
+            }
+        }
+    }
+
+    /**
+     * A connection and the game played on it.
+     */
+    private class Connection {
+
+        private SocketChannel channel;
+        private SelectionKey key;
+        private GameEngine engine;
+        private byte[] line; //bytes of the line being received
+        private int lineLength;
+        private ArrayDeque<ByteBuffer> pending; //encoded output not yet written
+        private long lastActive;
+        private boolean closeAfterWrite;
+        private boolean closed;
+
+        Connection(SocketChannel channel){
+            this.channel = channel;
+            this.engine = new GameEngine(world);
+            this.line = new byte[128];
+            this.pending = new ArrayDeque<>();
+            this.lastActive = System.nanoTime();
+        }
+
+        void queue(String text, boolean cacheable){
+            pending.addLast(cache.encode(text, cacheable));
+        }
+
+        //queues a response followed by the prompt, or just a line break when the session is ending
+        void send(String text, boolean cacheable, boolean prompt){
+            queue(text, cacheable);
+            queue(prompt ? RESPONSE_END : "\n", true);
+        }
+    }
+}
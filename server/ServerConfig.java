@@ -0,0 +1,163 @@
+package server;
+
+import engine.*;
+
+/**
+ * Settings shared by the game servers: where to listen, which world to load and how sessions are limited.
+ */
+public class ServerConfig {
+
+    private int port;
+    private String worldFile;
+    private int maxSessions;
+    private long idleTimeoutMillis;
+    private long shutdownGraceMillis;
+    private long roomCacheBytes;
+
+    /**
+    Creates a configuration with the defaults: port 4000, the default world, 10000 sessions, a 10 minute idle timeout,
+    a 10 second shutdown grace period, and the whole world loaded up front unless the game.roomCacheMegabytes
+    system property asks for rooms to be read as they are entered.
+    */
+    public ServerConfig(){
+        this.port = 4000;
+        this.worldFile = GameEngine.DEFAULT_WORLD;
+        this.maxSessions = 10000;
+        this.idleTimeoutMillis = 10 * 60 * 1000;
+        this.shutdownGraceMillis = 10 * 1000;
+        this.roomCacheBytes = Long.getLong("game.roomCacheMegabytes", 0) * 1024 * 1024;
+    }
+
+    /**
+    Retrieves the port the server listens on.
+    Returns:
+    the TCP port, or 0 for any free port
+    */
+    public int getPort(){
+        return port;
+    }
+
+    /**
+    Sets the port the server listens on.
+    Parameters:
+    port - the TCP port, or 0 for any free port
+    */
+    public void setPort(int port){
+        this.port = port;
+    }
+
+    /**
+    Retrieves the world file each session's game is loaded from.
+    Returns:
+    the world file name
+    */
+    public String getWorldFile(){
+        return worldFile;
+    }
+
+    /**
+    Sets the world file each session's game is loaded from.
+    Parameters:
+    worldFile - the world file name
+    */
+    public void setWorldFile(String worldFile){
+        this.worldFile = worldFile;
+    }
+
+    /**
+    Retrieves the maximum number of concurrent sessions; further connections are turned away.
+    Returns:
+    the session limit
+    */
+    public int getMaxSessions(){
+        return maxSessions;
+    }
+
+    /**
+    Sets the maximum number of concurrent sessions.
+    Parameters:
+    maxSessions - the session limit
+    */
+    public void setMaxSessions(int maxSessions){
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+    Retrieves how long a session may go without input before it is closed.
+    Returns:
+    the idle timeout in milliseconds, or 0 for none
+    */
+    public long getIdleTimeoutMillis(){
+        return idleTimeoutMillis;
+    }
+
+    /**
+    Sets how long a session may go without input before it is closed.
+    Parameters:
+    idleTimeoutMillis - the idle timeout in milliseconds, or 0 for none
+    */
+    public void setIdleTimeoutMillis(long idleTimeoutMillis){
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+    Retrieves how long a shutdown waits for in-flight turns before closing the remaining connections.
+    Returns:
+    the grace period in milliseconds
+    */
+    public long getShutdownGraceMillis(){
+        return shutdownGraceMillis;
+    }
+
+    /**
+    Sets how long a shutdown waits for in-flight turns before closing the remaining connections.
+    Parameters:
+    shutdownGraceMillis - the grace period in milliseconds
+    */
+    public void setShutdownGraceMillis(long shutdownGraceMillis){
+        this.shutdownGraceMillis = shutdownGraceMillis;
+    }
+
+    /**
+    Retrieves the memory budget for rooms read from the world file as games enter them.
+    Returns:
+    the budget in bytes, or 0 if the whole world is loaded up front
+    */
+    public long getRoomCacheBytes(){
+        return roomCacheBytes;
+    }
+
+    /**
+    Sets the memory budget for rooms read from the world file as games enter them. Rooms used least recently are
+    dropped when the budget is exceeded and read again when needed.
+    Parameters:
+    roomCacheBytes - the budget in bytes, or 0 to load the whole world up front
+    */
+    public void setRoomCacheBytes(long roomCacheBytes){
+        this.roomCacheBytes = roomCacheBytes;
+    }
+
+    /**
+    Reads a configuration from command-line arguments of the form: [port] [world file] [max sessions] [idle timeout seconds].
+    Parameters:
+    args - the command-line arguments
+    Returns:
+    the configuration, with defaults for missing arguments
+    */
+    public static ServerConfig fromArgs(String[] args){
+        ServerConfig config = new ServerConfig();
+        if(args.length > 0){
+            config.setPort(Integer.parseInt(args[0]));
+        }
+        if(args.length > 1){
+            config.setWorldFile(args[1]);
+        }
+        if(args.length > 2){
+            config.setMaxSessions(Integer.parseInt(args[2]));
+        }
+        if(args.length > 3){
+            config.setIdleTimeoutMillis(Long.parseLong(args[3]) * 1000);
+        }
+        return config;
+    }
+}
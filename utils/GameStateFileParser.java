@@ -1,7 +1,11 @@
 package utils;
 
 import java.io.*;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.util.HashMap;
 
 import gameobjects.*;
@@ -12,118 +16,347 @@ import gameobjects.*;
  * <p>
  * This class reads a structured text file to create a {@code GameState} object,
  * including the player, map, rooms, items, equipment, features, and exits.
+ * The file is streamed through a {@code WorldFileReader}, so the world is built in one pass without
+ * holding the file's lines, and malformed records are reported with their line and column.
  * </p>
  */
 public class GameStateFileParser {
 
+    ///The number of fields in each record type; the last field of a record runs to the end of its line.
+    public static final java.util.Map<String, Integer> FIELD_LIMITS = fieldLimits();
+
+    private static final int BYTES_PER_ROOM = 400; //a room header with a handful of objects and exits
+
     public GameStateFileParser(){
     }
 
+    private static java.util.Map<String, Integer> fieldLimits(){
+        HashMap<String, Integer> limits = new HashMap<>();
+        limits.put("player", 1);
+        limits.put("map", 1);
+        limits.put("room", 4);
+        limits.put("equipment", 8);
+        limits.put("container", 4);
+        limits.put("item", 4);
+        limits.put("exit", 5);
+        limits.put("objective", 3);
+        limits.put("use", 4);
+        limits.put("recipe", 4);
+        return java.util.Collections.unmodifiableMap(limits);
+    }
+
+    /**
+    Parses a world from the specified file into a template that any number of games can be created from.
+    Files of at least {@link ParallelWorldLoader#THRESHOLD} bytes are parsed in parallel.
+    Parameters:
+    filename - the name of the file to parse
+    Returns:
+    the parsed WorldTemplate
+    */
+    public static WorldTemplate parseTemplate(String filename) {
+        GameState gameState;
+        try{
+            gameState = Files.size(Paths.get(filename)) >= ParallelWorldLoader.THRESHOLD ? ParallelWorldLoader.parse(filename) : parse(filename);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return new WorldTemplate(gameState.getPlayer().getName(), gameState.getMap(), gameState.getObjectives(), gameState.getUseRules());
+    }
+
     /*
     Parses a game state from the specified file.
     Parameters:
     filename - the name of the file to parse
     Returns:
     the parsed GameState object
+    Throws:
+    WorldFileException - if a record is missing fields or has a malformed value
     */
     public static GameState parse(String filename) {
-        GameState gameState = new GameState();
-        Map map = new Map();
-        Player player = null;
-        Room currentRoom = null;
-
-        try(BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-            String line;
-            Room newRoom = null;
-            
-            while((line = reader.readLine()) != null){
-                String[] parts = line.split(":|,", -1);
-
-                if(line.startsWith("player:")){
-                    String playerName = parts[1].trim();
-                    player = new Player(playerName);
-                    gameState.setPlayer(player);
-                } else if (line.startsWith("map:")) {
-                    String mapId = parts[1].trim();
-                    gameState.setMap(map);
-                } else if (line.startsWith("room:")) {
-                    String roomId = parts[1].trim();
-                    String roomName = parts[2].trim();
-                    String roomDescription = parts[3].trim();
-                    boolean isHidden = Boolean.parseBoolean(parts[4].trim());
-
-                    if(currentRoom == null){
-                        currentRoom = new Room(roomId, roomName, roomDescription, isHidden);
-                        map.addRoom(currentRoom);
-                        map.setCurrentRoom(currentRoom.getId());
-                    }else{
-                        newRoom = new Room(roomId, roomName, roomDescription, isHidden);
-                        map.addRoom(newRoom);
-                    }
-                } else if (line.startsWith("equipment:")) {
-                    String equipmentId = parts[1].trim();
-                    String equipmentName = parts[2].trim();
-                    String equipmentDescription = parts[3].trim();
-                    boolean equipmentHidden = Boolean.parseBoolean(parts[4].trim());
-                    String action = parts[5].trim();
-                    String target = parts[6].trim();
-                    String result = parts[7].trim();
-                    String description = parts[8].trim();
-
-                    UseInformation info = new UseInformation(false, action, target, result, description);
-                    Equipment equipment = new Equipment(equipmentId, equipmentName, equipmentDescription, equipmentHidden, info);
-
-                    if(newRoom != null){
-                        newRoom.addEquipment(equipment);
-                    }else if(currentRoom != null){
-                        currentRoom.addEquipment(equipment);
-                    }
-                } else if (line.startsWith("container:")) {
-                    String containerId = parts[1].trim();
-                    String containerName = parts[2].trim();
-                    String containerDescription= parts[3].trim();
-                    boolean containerHidden = Boolean.parseBoolean(parts[4].trim());
-
-                    Container container = new Container(containerId, containerName, containerDescription, containerHidden);
-
-                    if(newRoom != null){
-                        newRoom.addFeature(container);
-                    }else if(currentRoom != null){
-                        currentRoom.addFeature(container);
-                    }
-                } else if (line.startsWith("item:")) {
-                    String itemId = parts[1].trim();
-                    String itemName = parts[2].trim();
-                    String itemDescription = parts[3].trim();
-                    boolean itemHidden = Boolean.parseBoolean(parts[4].trim());
-
-                    Item item = new Item(itemId, itemName, itemDescription, itemHidden);
-
-                    if(newRoom != null){
-                        newRoom.addItem(item);
-                    }else if(currentRoom != null){
-                        currentRoom.addItem(item);
-                    }
-                } else if(line.startsWith("exit:")){
-                    String exitId = parts[1].trim();
-                    String exitName = parts[2].trim();
-                    String exitDescription = parts[3].trim();
-                    String nextRoomId = parts[4].trim();
-                    boolean exitHidden = Boolean.parseBoolean(parts[5].trim());
-
-                    Exit exit = new Exit(exitId, exitName, exitDescription, nextRoomId, exitHidden);
-
-                    if(newRoom != null){
-                        newRoom.addExit(exit);
-                    }else if(currentRoom != null){
-                        currentRoom.addExit(exit);
-                    }
+        try(WorldFileReader reader = WorldFileReader.open(filename, FIELD_LIMITS)) {
+            GameState gameState = new GameState();
+            Map map = new Map(estimateRooms(Files.size(Paths.get(filename))));
+            parseSection(reader, gameState, map);
+            startAtFirstRoom(map);
+            startObjectives(gameState);
+            return gameState;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+    Parses records into a game state until the end of the reader. Rooms are added to the map in file order and objects
+    go into the room most recently read; a player record sets the player and a map record sets the game state's map.
+    Objective, use and recipe records belong to the world rather than a room, so they must come before the first room; items and
+    equipment before the first room are prototypes, which use rules and recipes make copies of. The use fields older equipment
+    records carry after their first four become a use rule.
+    Parameters:
+    reader - the records to parse
+    gameState - receives the player and, if the records declare one, the map
+    map - receives the rooms
+    Throws:
+    IOException - if the records cannot be read
+    WorldFileException - if a record is missing fields or has a malformed value
+    */
+    static void parseSection(WorldFileReader reader, GameState gameState, Map map) throws IOException {
+        Room room = null; //the room objects are added to
+
+        while(reader.next()){
+            String type = reader.getType();
+
+            if(type.equals("player")){
+                String playerName = reader.getField(0);
+                gameState.setPlayer(new Player(playerName));
+            } else if (type.equals("map")) {
+                String mapId = reader.getField(0);
+                gameState.setMap(map);
+            } else if (type.equals("objective")) {
+                if(room != null || !map.getRooms().isEmpty()){
+                    throw reader.fieldError(0, "objective records must come before the first room record");
                 }
+                String objectiveId = reader.getField(0);
+                String[] requiredIds = reader.getField(1).trim().split("\\s+");
+                String message = reader.getField(2);
+                if(requiredIds.length > Objective.MOST_REQUIREMENTS || requiredIds[0].isEmpty()){
+                    throw reader.fieldError(1, "an objective must require between 1 and " + Objective.MOST_REQUIREMENTS + " object IDs");
+                }
+                gameState.addObjective(new Objective(objectiveId, requiredIds, message));
+            } else if (type.equals("use")) {
+                if(room != null || !map.getRooms().isEmpty()){
+                    throw reader.fieldError(0, "use records must come before the first room record");
+                }
+                String equipmentId = reader.getField(0);
+                String targetId = reader.getField(1);
+                UseEffect[] effects;
+                try{
+                    effects = UseEffect.parseAll(reader.getField(2));
+                } catch (IllegalArgumentException e) {
+                    throw reader.fieldError(2, e.getMessage());
+                }
+                String message = reader.getField(3);
+                gameState.getUseRules().add(equipmentId, targetId, effects, message);
+            } else if (type.equals("recipe")) {
+                if(room != null || !map.getRooms().isEmpty()){
+                    throw reader.fieldError(0, "recipe records must come before the first room record");
+                }
+                String[] inputIds = reader.getField(0).trim().split("\\s+");
+                if(inputIds.length < 2){
+                    throw reader.fieldError(0, "a recipe must combine at least two object IDs");
+                }
+                String outputs = reader.getField(1).trim();
+                String[] outputIds = outputs.isEmpty() ? new String[0] : outputs.split("\\s+");
+                int points;
+                try{
+                    String score = reader.getField(2).trim();
+                    points = Integer.parseInt(score.startsWith("+") ? score.substring(1) : score);
+                } catch (NumberFormatException e) {
+                    throw reader.fieldError(2, "expected a whole number of points");
+                }
+                String message = reader.getField(3);
+                gameState.getUseRules().addRecipe(new Recipe(inputIds, outputIds, points, message));
+            } else if (type.equals("room")) {
+                if(room == null && map.getRooms().isEmpty()){
+                    checkPrototypes(reader, gameState.getUseRules());
+                }
+                String roomId = reader.getField(0);
+                String roomName = reader.getField(1);
+                String roomDescription = reader.getField(2);
+                boolean isHidden = reader.getBoolean(3);
+
+                room = new Room(roomId, roomName, roomDescription, isHidden);
+                map.addRoom(room);
+            } else if (type.equals("equipment")) {
+                String equipmentId = reader.getField(0);
+                String equipmentName = reader.getField(1);
+                String equipmentDescription = reader.getField(2);
+                boolean equipmentHidden = reader.getBoolean(3);
+                if(reader.getFieldCount() > 4){
+                    addLegacyRule(reader, gameState.getUseRules(), equipmentId);
+                }
+
+                Equipment equipment = new Equipment(equipmentId, equipmentName, equipmentDescription, equipmentHidden);
+                if(isPrototype(room, map)){
+                    gameState.getUseRules().addPrototype(equipment);
+                } else{
+                    roomFor(reader, room).addEquipment(equipment);
+                }
+            } else if (type.equals("container")) {
+                String containerId = reader.getField(0);
+                String containerName = reader.getField(1);
+                String containerDescription = reader.getField(2);
+                boolean containerHidden = reader.getBoolean(3);
+
+                Container container = new Container(containerId, containerName, containerDescription, containerHidden);
+                roomFor(reader, room).addFeature(container);
+            } else if (type.equals("item")) {
+                String itemId = reader.getField(0);
+                String itemName = reader.getField(1);
+                String itemDescription = reader.getField(2);
+                boolean itemHidden = reader.getBoolean(3);
+
+                Item item = new Item(itemId, itemName, itemDescription, itemHidden);
+                if(isPrototype(room, map)){
+                    gameState.getUseRules().addPrototype(item);
+                } else{
+                    roomFor(reader, room).addItem(item);
+                }
+            } else if(type.equals("exit")){
+                String exitId = reader.getField(0);
+                String exitName = reader.getField(1);
+                String exitDescription = reader.getField(2);
+                String nextRoomId = reader.getField(3);
+                boolean exitHidden = reader.getBoolean(4);
+
+                Exit exit = new Exit(exitId, exitName, exitDescription, nextRoomId, exitHidden);
+                roomFor(reader, room).addExit(exit);
             }
+        }
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    /**
+    Parses the records in part of a world file, which must start at the beginning of a line.
+    Parameters:
+    channel - the world file
+    source - the name of the file, used in error messages
+    start - the byte offset to start at
+    end - the byte offset to stop at
+    line - the line number of the line at start
+    gameState - receives the player and, if the records declare one, the map
+    map - receives the rooms
+    Throws:
+    IOException - if the file cannot be read
+    WorldFileException - if a record is missing fields or has a malformed value
+    */
+    static void parseRange(FileChannel channel, String source, long start, long end, int line, GameState gameState, Map map) throws IOException {
+        try(WorldFileReader reader = openRange(channel, source, start, end, line)){
+            parseSection(reader, gameState, map);
         }
-        return gameState;
+    }
+
+    /**
+    Turns the old-style use fields of the equipment records in a file's rooms into use rules, for a world that reads
+    its rooms on demand and so would otherwise only see them in games that enter those rooms.
+    Parameters:
+    channel - the world file
+    source - the name of the file, used in error messages
+    index - the scan of the file, which found the equipment records with such fields
+    useRules - receives the rules
+    Throws:
+    IOException - if the file cannot be read
+    WorldFileException - if a record is missing fields
+    */
+    static void parseLegacyRules(FileChannel channel, String source, RoomIndex index, UseRules useRules) throws IOException {
+        for(int record = 0; record < index.getLegacyCount(); record++){
+            try(WorldFileReader reader = openRange(channel, source, index.getLegacyStart(record), index.getLegacyEnd(record), index.getLegacyLine(record))){
+                if(reader.next() && reader.getType().equals("equipment") && reader.getFieldCount() > 4){
+                    addLegacyRule(reader, useRules, reader.getField(0));
+                }
+            }
+        }
+    }
+
+    /**
+    Checks that every prototype the recipes make and the use rules spawn was declared before the first room, for a
+    loader that parses the records before the first room on their own and so never reaches the check in
+    {@link #parseSection}. A file with no rooms is not checked.
+    Parameters:
+    channel - the world file
+    source - the name of the file, used in error messages
+    index - the scan of the file, which found the first room
+    useRules - the rules read from the records before the first room
+    Throws:
+    IOException - if the file cannot be read
+    WorldFileException - if a recipe or use rule names a prototype that was not declared, reported at the first room
+    */
+    static void checkPrototypes(FileChannel channel, String source, RoomIndex index, UseRules useRules) throws IOException {
+        if(index.getCount() == 0){
+            return;
+        }
+        try(WorldFileReader reader = openRange(channel, source, index.getStart(0), index.getEnd(0), index.getLine(0))){
+            if(reader.next()){
+                checkPrototypes(reader, useRules);
+            }
+        }
+    }
+
+    /*
+     * Prototypes may be declared anywhere before the first room, so the IDs recipes make and use rules spawn are
+     * checked once the first room record ends the preamble, rather than as each record is read.
+     */
+    private static void checkPrototypes(WorldFileReader reader, UseRules useRules){
+        for(Recipe recipe : useRules.getRecipes()){
+            for(String outputId : recipe.getOutputIds()){
+                if(useRules.getPrototype(outputId) == null){
+                    throw reader.fieldError(0, "the recipe combining " + String.join(" ", recipe.getInputIds()) + " makes " + outputId + ", but no item or equipment with that ID comes before the first room");
+                }
+            }
+        }
+        for(UseRule rule : useRules.getRules()){
+            for(UseEffect effect : rule.getEffects()){
+                if(effect.getKind() == UseEffect.Kind.SPAWN && useRules.getPrototype(effect.getObjectId()) == null){
+                    throw reader.fieldError(0, "using " + rule.getEquipmentId() + " on " + rule.getTargetId() + " spawns " + effect.getObjectId() + ", but no item or equipment with that ID comes before the first room");
+                }
+            }
+        }
+    }
+
+    //a reader over part of the file, decoded in one go
+    private static WorldFileReader openRange(FileChannel channel, String source, long start, long end, int line) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate((int) (end - start));
+        while(bytes.hasRemaining() && channel.read(bytes, start + bytes.position()) > 0){
+            //positional reads leave the channel free for other threads
+        }
+        bytes.flip();
+        CharBuffer text = StandardCharsets.UTF_8.newDecoder().decode(bytes);
+        Reader in = new CharArrayReader(text.array(), text.arrayOffset() + text.position(), text.remaining());
+        return new WorldFileReader(in, source, line, FIELD_LIMITS);
+    }
+
+    //the player starts working towards the world's objectives once the whole file is read
+    static void startObjectives(GameState gameState){
+        if(gameState.getPlayer() != null){
+            gameState.getPlayer().setObjectives(gameState.getObjectives());
+        }
+    }
+
+    //the game starts in the first room of the file
+    static void startAtFirstRoom(Map map){
+        if(!map.getRooms().isEmpty()){
+            map.setCurrentRoom(map.getRooms().get(0).getId());
+        }
+    }
+
+    /*
+     * Turns the action, target, result and message fields that equipment records carried before use records existed
+     * into a use rule that reveals the result and scores 10 points, as using such equipment always did.
+     * A target or result of "none" means the equipment had no use.
+     */
+    private static void addLegacyRule(WorldFileReader reader, UseRules useRules, String equipmentId){
+        String target = reader.getField(5);
+        String result = reader.getField(6);
+        String message = reader.getField(7);
+        if(target.equalsIgnoreCase("none") || result.equalsIgnoreCase("none")){
+            return;
+        }
+        useRules.add(equipmentId, target, new UseEffect[]{UseEffect.reveal(result), UseEffect.score(10)}, message);
+    }
+
+    //items and equipment read before the first room belong to no room
+    private static boolean isPrototype(Room room, Map map){
+        return room == null && map.getRooms().isEmpty();
+    }
+
+    //the room that objects are being added to: the latest room record
+    private static Room roomFor(WorldFileReader reader, Room room){
+        if(room == null){
+            throw reader.fieldError(0, reader.getType() + " record must follow a room record");
+        }
+        return room;
+    }
+
+    //guesses the number of rooms from the file size so the map's indexes are sized once
+    static int estimateRooms(long size){
+        return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, size / BYTES_PER_ROOM));
     }
 }
@@ -0,0 +1,239 @@
+package utils;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import gameobjects.*;
+
+/**
+ * A world that reads its rooms from the world file only when a game needs them.
+ *
+ * <p>
+ * Opening the world scans the file once for the position of every room record and parses only the header, so
+ * startup time and memory no longer grow with the number of objects in the world. A room is parsed the first time
+ * a game asks for it and kept as a shared room; when the estimated size of the parsed rooms goes over the budget,
+ * the rooms used least recently are dropped and parsed again if they are needed later. Shared rooms never change,
+ * so nothing is lost by dropping them: a game that changes a room works on its own copy, which its {@code Map}
+ * keeps for as long as the game lasts.
+ * </p>
+ *
+ * <p>
+ * The player record must come before the first room, and the file must not change while the world is open.
+ * Because rooms are parsed on demand, a malformed room is reported when it is first entered rather than at startup.
+ * </p>
+ */
+public class LazyWorld implements WorldSource, Closeable {
+
+    private static final int HEAP_PER_TEXT_BYTE = 4; //rough heap cost of a parsed room per byte of its text
+
+    private String filename;
+    private FileChannel channel;
+    private RoomIndex index;
+    private HashMap<String, Integer> roomNumbers;
+    private String playerName;
+    private ArrayList<Objective> objectives;
+    private UseRules useRules;
+    private long budget;
+    private LinkedHashMap<String, Room> parsed; //in order of last use, least recent first
+    private long parsedBytes;
+    private long loads;
+    private RenderCounters renderCounters;
+
+    private LazyWorld(String filename, FileChannel channel, RoomIndex index, String playerName, ArrayList<Objective> objectives, UseRules useRules, long budget){
+        this.objectives = objectives;
+        this.useRules = useRules;
+        this.renderCounters = new RenderCounters();
+        this.filename = filename;
+        this.channel = channel;
+        this.index = index;
+        this.playerName = playerName;
+        this.budget = budget;
+        this.roomNumbers = new HashMap<>(index.getCount() * 4 / 3 + 1);
+        for(int room = 0; room < index.getCount(); room++){
+            roomNumbers.putIfAbsent(index.getId(room), room); //the first room with an ID wins, as in a loaded map
+        }
+        this.parsed = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+    Opens a world file, indexing its rooms without parsing them.
+    Parameters:
+    filename - the world file
+    budget - roughly how many bytes of memory parsed rooms may take before the least recently used are dropped
+    Returns:
+    the world
+    Throws:
+    WorldFileException - if the header, or an equipment record with old-style use fields, is malformed, or a recipe or
+    use rule names a prototype the header does not declare
+    */
+    public static LazyWorld open(String filename, long budget){
+        FileChannel channel = null;
+        try{
+            channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+            RoomIndex index = RoomIndex.scan(channel, true);
+            GameState header = new GameState();
+            GameStateFileParser.parseRange(channel, filename, 0, index.getHeaderEnd(), 1, header, new Map());
+            if(header.getPlayer() == null){
+                throw new WorldFileException(filename, 1, 1, "Expected a player record before the first room");
+            }
+            GameStateFileParser.parseLegacyRules(channel, filename, index, header.getUseRules()); //rooms parsed later go to throwaway games
+            GameStateFileParser.checkPrototypes(channel, filename, index, header.getUseRules());
+            return new LazyWorld(filename, channel, index, header.getPlayer().getName(), header.getObjectives(), header.getUseRules(), budget);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    public String getPlayerName(){
+        return playerName;
+    }
+
+    public String getStartRoomId(){
+        return index.getCount() > 0 ? index.getId(0) : null;
+    }
+
+    /**
+    Retrieves a room, parsing it from the file if it is not already parsed.
+    Parameters:
+    roomId - the ID of the room
+    Returns:
+    the shared room, or null if the world has no such room
+    Throws:
+    WorldFileException - if the room's records are malformed
+    */
+    public Room getSharedRoom(String roomId){
+        Integer room = roomNumbers.get(roomId);
+        if(room == null){
+            return null;
+        }
+        synchronized(parsed){
+            Room cached = parsed.get(roomId);
+            if(cached != null){
+                return cached;
+            }
+        }
+
+        Room loaded = parse(room); //outside the lock so games entering different rooms do not wait for each other
+        synchronized(parsed){
+            Room cached = parsed.get(roomId);
+            if(cached != null){
+                return cached; //another game parsed it first
+            }
+            parsed.put(roomId, loaded);
+            parsedBytes += size(room);
+            loads++;
+            evict();
+        }
+        return loaded;
+    }
+
+    public Room copyRoom(String roomId){
+        Room room = getSharedRoom(roomId);
+        if(room == null){
+            return null;
+        }
+        return room.copy();
+    }
+
+    ///Rooms are not all parsed, so a lazy world has no exit graph and games move through the rooms' exits.
+    public ExitGraph getExitGraph(){
+        return null;
+    }
+
+    ///A lazy world keeps no object directory, as its objects are only known once their rooms are read.
+    public ObjectDirectory getObjectDirectory(){
+        return null;
+    }
+
+    public RenderCounters getRenderCounters(){
+        return renderCounters;
+    }
+
+    public GameState newGameState(){
+        Map map = new Map(this);
+        map.setCurrentRoom(getStartRoomId());
+        return new GameState(map, new Player(playerName), objectives, useRules);
+    }
+
+    /**
+    Retrieves the number of rooms in the world, parsed or not.
+    Returns:
+    the room count
+    */
+    public int getRoomCount(){
+        return index.getCount();
+    }
+
+    /**
+    Retrieves the number of rooms currently parsed.
+    Returns:
+    the number of rooms held in memory
+    */
+    public int getParsedRooms(){
+        synchronized(parsed){
+            return parsed.size();
+        }
+    }
+
+    /**
+    Retrieves how many times a room has been parsed from the file, including rooms parsed again after being dropped.
+    Returns:
+    the number of room loads
+    */
+    public long getLoads(){
+        synchronized(parsed){
+            return loads;
+        }
+    }
+
+    ///Closes the world file. Rooms that are not already parsed can no longer be loaded.
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Room parse(int room){
+        GameState gameState = new GameState();
+        Map map = new Map(1);
+        try{
+            GameStateFileParser.parseRange(channel, filename, index.getStart(room), index.getEnd(room), index.getLine(room), gameState, map);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        Room loaded = map.getRooms().get(0);
+        loaded.share(renderCounters);
+        return loaded;
+    }
+
+    //drops the least recently used rooms until the parsed rooms fit the budget, always keeping the newest
+    private void evict(){
+        Iterator<String> oldest = parsed.keySet().iterator();
+        while(parsedBytes > budget && parsed.size() > 1){
+            String roomId = oldest.next();
+            oldest.remove();
+            parsedBytes -= size(roomNumbers.get(roomId));
+        }
+    }
+
+    private long size(int room){
+        return (index.getEnd(room) - index.getStart(room)) * HEAP_PER_TEXT_BYTE;
+    }
+
+    private static void closeQuietly(FileChannel channel){
+        if(channel != null){
+            try{
+                channel.close();
+            } catch (IOException e) {
+                //already failing
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package utils;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import gameobjects.*;
+
+/**
+ * Loads a world file on a ForkJoin pool by splitting it at its {@code room:} records.
+ *
+ * <p>
+ * A first pass scans the file's bytes for lines starting with {@code room:} and groups the rooms into chunks of
+ * roughly equal size. Each chunk is then read and parsed on its own with the same record parser the
+ * sequential loader uses, and the chunks are merged in file order: rooms are added in the order they appear, the
+ * last player record wins and the first room is where the game starts. The merge is meant to give the same world
+ * that {@link GameStateFileParser#parse(String)} produces, with errors reported at the same lines and columns;
+ * {@link #main(String[])} checks a world file by comparing the snapshots of the two results.
+ * </p>
+ */
+public class ParallelWorldLoader {
+
+    ///Files at least this large are worth loading in parallel.
+    public static final long THRESHOLD = 16L * 1024 * 1024;
+
+    private static final int MIN_CHUNK = 1024 * 1024; //smaller chunks cost more to schedule than to parse
+    private static final int MAX_CHUNK = 64 * 1024 * 1024; //a chunk's text is held in memory while it is parsed
+    private static final int CHUNKS_PER_THREAD = 4; //lets threads that finish early take more work
+
+    public ParallelWorldLoader(){
+    }
+
+    /**
+    Checks from the command line that world files load the same in parallel as sequentially. Each file is parsed both
+    ways, splitting it at every room so that every chunk boundary is exercised, and the snapshots of the two worlds are
+    compared byte for byte.
+    Parameters:
+    args - the world files to check
+    Throws:
+    IOException - if a snapshot cannot be written
+    */
+    public static void main(String[] args) throws IOException {
+        boolean same = true;
+        for(String filename : args){
+            Path sequential = Files.createTempFile("sequential", WorldSnapshot.EXTENSION);
+            Path parallel = Files.createTempFile("parallel", WorldSnapshot.EXTENSION);
+            try{
+                WorldSnapshot.write(template(GameStateFileParser.parse(filename)), sequential.toString());
+                WorldSnapshot.write(template(parse(filename, ForkJoinPool.commonPool(), 1)), parallel.toString());
+                long mismatch = Files.mismatch(sequential, parallel);
+                System.out.println(filename + (mismatch < 0 ? ": same world" : ": worlds differ at snapshot byte " + mismatch));
+                same &= mismatch < 0;
+            } finally{
+                Files.deleteIfExists(sequential);
+                Files.deleteIfExists(parallel);
+            }
+        }
+        if(!same){
+            System.exit(1);
+        }
+    }
+
+    private static WorldTemplate template(GameState gameState){
+        return new WorldTemplate(gameState.getPlayer().getName(), gameState.getMap(), gameState.getObjectives(), gameState.getUseRules());
+    }
+
+    /**
+    Parses a world file on the common ForkJoin pool.
+    Parameters:
+    filename - the name of the file to parse
+    Returns:
+    the parsed GameState object
+    Throws:
+    WorldFileException - if a record is missing fields or has a malformed value
+    */
+    public static GameState parse(String filename){
+        return parse(filename, ForkJoinPool.commonPool());
+    }
+
+    /**
+    Parses a world file on the given ForkJoin pool.
+    Parameters:
+    filename - the name of the file to parse
+    pool - the pool to parse the file's chunks on
+    Returns:
+    the parsed GameState object
+    Throws:
+    WorldFileException - if a record is missing fields or has a malformed value
+    */
+    public static GameState parse(String filename, ForkJoinPool pool){
+        return parse(filename, pool, 0);
+    }
+
+    //parses in chunks of about chunkSize bytes, or of a size suited to the file and pool when chunkSize is 0
+    private static GameState parse(String filename, ForkJoinPool pool, long chunkSize){
+        try(FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)){
+            RoomIndex rooms = RoomIndex.scan(channel, false);
+            if(chunkSize <= 0){
+                chunkSize = Math.min(MAX_CHUNK, Math.max(MIN_CHUNK, rooms.getEnd() / ((long) pool.getParallelism() * CHUNKS_PER_THREAD)));
+            }
+            Chunks chunks = split(rooms, chunkSize);
+
+            GameState[] states = new GameState[chunks.count];
+            Map[] maps = new Map[chunks.count];
+            pool.invoke(new ChunkTask(filename, channel, chunks, states, maps, 0, chunks.count));
+            GameStateFileParser.checkPrototypes(channel, filename, rooms, states[0].getUseRules()); //the header is chunk 0, parsed without its first room
+            return merge(states, maps);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    //combines the chunks' results in file order, as the sequential loader would have built them
+    private static GameState merge(GameState[] states, Map[] maps){
+        int roomCount = 0;
+        for(Map map : maps){
+            roomCount += map.getRooms().size();
+        }
+
+        GameState gameState = new GameState();
+        Map map = new Map(roomCount);
+        for(int i = 0; i < states.length; i++){
+            for(Room room : maps[i].getRooms()){
+                map.addRoom(room);
+            }
+            if(states[i].getPlayer() != null){
+                gameState.setPlayer(states[i].getPlayer());
+            }
+            if(states[i].getMap() != null){
+                gameState.setMap(map);
+            }
+            for(Objective objective : states[i].getObjectives()){
+                gameState.addObjective(objective);
+            }
+            gameState.getUseRules().addAll(states[i].getUseRules());
+        }
+        GameStateFileParser.startAtFirstRoom(map);
+        GameStateFileParser.startObjectives(gameState);
+        return gameState;
+    }
+
+    //groups the rooms into chunks of about chunkSize bytes; the header is a chunk of its own
+    private static Chunks split(RoomIndex rooms, long chunkSize){
+        Chunks chunks = new Chunks();
+        chunks.add(0, 1);
+        for(int room = 0; room < rooms.getCount(); room++){
+            long start = rooms.getStart(room);
+            if(room == 0 || start - chunks.start[chunks.count - 1] >= chunkSize){
+                chunks.add(start, rooms.getLine(room));
+            }
+        }
+        chunks.end = rooms.getEnd();
+        return chunks;
+    }
+
+    //parses one chunk of the file into its own game state and map
+    private static void parseChunk(String filename, FileChannel channel, Chunks chunks, int chunk, GameState[] states, Map[] maps) throws IOException {
+        long start = chunks.start[chunk];
+        long end = chunk + 1 < chunks.count ? chunks.start[chunk + 1] : chunks.end;
+
+        GameState gameState = new GameState();
+        Map map = new Map(GameStateFileParser.estimateRooms(end - start));
+        GameStateFileParser.parseRange(channel, filename, start, end, chunks.line[chunk], gameState, map);
+        states[chunk] = gameState;
+        maps[chunk] = map;
+    }
+
+    /**
+     * Where each chunk of the file starts, as a byte offset and a line number.
+     */
+    private static class Chunks {
+
+        long[] start = new long[64];
+        int[] line = new int[64];
+        int count;
+        long end;
+
+        void add(long offset, int lineNumber){
+            if(count == start.length){
+                start = Arrays.copyOf(start, count * 2);
+                line = Arrays.copyOf(line, count * 2);
+            }
+            start[count] = offset;
+            line[count] = lineNumber;
+            count++;
+        }
+    }
+
+    /**
+     * Parses a range of chunks, splitting the range in half until a single chunk is left.
+     */
+    private static class ChunkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private String filename;
+        private FileChannel channel;
+        private Chunks chunks;
+        private GameState[] states;
+        private Map[] maps;
+        private int from;
+        private int to;
+
+        ChunkTask(String filename, FileChannel channel, Chunks chunks, GameState[] states, Map[] maps, int from, int to){
+            this.filename = filename;
+            this.channel = channel;
+            this.chunks = chunks;
+            this.states = states;
+            this.maps = maps;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute(){
+            if(to - from == 1){
+                try{
+                    parseChunk(filename, channel, chunks, from, states, maps);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(filename, channel, chunks, states, maps, from, middle),
+                      new ChunkTask(filename, channel, chunks, states, maps, middle, to));
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package utils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Where each room record of a world file starts, found by scanning the file's bytes without parsing it.
+ *
+ * <p>
+ * A room's section runs from its {@code room:} line to the next one, so the section holds the room and all of
+ * its objects. Everything before the first room, such as the player record, is the header. The scan can also
+ * read each room's ID from its record so rooms can be found by ID.
+ * </p>
+ *
+ * <p>
+ * The scan also notes the equipment records in rooms that still carry the use fields older worlds gave equipment
+ * after its first four, found by counting their unescaped commas, so a world that reads rooms on demand can turn
+ * them into use rules up front.
+ * </p>
+ */
+class RoomIndex {
+
+    private static final byte[] ROOM = "room:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EQUIPMENT = "equipment:".getBytes(StandardCharsets.US_ASCII);
+    private static final int LEGACY_COMMAS = 4; //an equipment record with more than four fields has old-style use fields
+
+    private long[] offsets;
+    private int[] lines;
+    private String[] ids;
+    private int count;
+    private long end;
+    private long[] legacyOffsets; //where each equipment record with old-style use fields starts
+    private long[] legacyEnds;
+    private int[] legacyLines;
+    private int legacyCount;
+
+    private RoomIndex(boolean withIds){
+        this.offsets = new long[1024];
+        this.lines = new int[1024];
+        this.ids = withIds ? new String[1024] : null;
+        this.legacyOffsets = new long[16];
+        this.legacyEnds = new long[16];
+        this.legacyLines = new int[16];
+    }
+
+    /**
+    Scans a world file for its room records.
+    Parameters:
+    channel - the world file
+    withIds - whether to read each room's ID
+    Returns:
+    the index of the file's rooms
+    Throws:
+    IOException - if the file cannot be read
+    */
+    static RoomIndex scan(FileChannel channel, boolean withIds) throws IOException {
+        RoomIndex index = new RoomIndex(withIds);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+        ByteArrayOutputStream id = new ByteArrayOutputStream();
+        long position = 0;
+        long lineStart = 0;
+        int line = 1;
+        int matched = 0; //how much of "room:" the current line starts with, or -1 if it does not
+        int equipment = 0; //how much of "equipment:" the current line starts with, or -1 if it does not
+        int commas = -1; //unescaped commas so far in an equipment record in a room, or -1 if this line is not one
+        boolean inId = false; //reading the ID of the room on this line
+        boolean escaped = false;
+
+        while(channel.read(buffer, position) > 0){
+            buffer.flip();
+            while(buffer.hasRemaining()){
+                byte b = buffer.get();
+                if(b == '\n'){
+                    if(inId){
+                        index.ids[index.count - 1] = decode(id);
+                        inId = false;
+                    }
+                    if(commas >= LEGACY_COMMAS){
+                        index.addLegacy(lineStart, position + 1, line);
+                    }
+                    line++;
+                    lineStart = position + 1;
+                    matched = 0;
+                    equipment = 0;
+                    commas = -1;
+                    escaped = false;
+                } else if(inId){
+                    if(escaped){
+                        id.write(b);
+                        escaped = false;
+                    } else if(b == '\\'){
+                        escaped = true;
+                    } else if(b == ','){
+                        index.ids[index.count - 1] = decode(id);
+                        inId = false;
+                    } else{
+                        id.write(b);
+                    }
+                } else if(commas >= 0){
+                    if(escaped){
+                        escaped = false;
+                    } else if(b == '\\'){
+                        escaped = true;
+                    } else if(b == ','){
+                        commas++;
+                    }
+                } else if(matched == 0 && equipment == 0 && (b == ' ' || b == '\t')){
+                    //indentation before the record type is ignored, as the reader trims it
+                } else if(matched >= 0 || equipment >= 0){
+                    if(matched >= 0 && b != ROOM[matched]){
+                        matched = -1;
+                    } else if(matched >= 0 && ++matched == ROOM.length){
+                        index.add(lineStart, line);
+                        matched = -1;
+                        equipment = -1;
+                        if(index.ids != null){
+                            id.reset();
+                            inId = true;
+                        }
+                    }
+                    if(equipment >= 0 && b != EQUIPMENT[equipment]){
+                        equipment = -1;
+                    } else if(equipment >= 0 && ++equipment == EQUIPMENT.length){
+                        equipment = -1;
+                        commas = index.count > 0 ? 0 : -1; //equipment in the header is read with the header
+                    }
+                }
+                position++;
+            }
+            buffer.clear();
+        }
+        if(inId){
+            index.ids[index.count - 1] = decode(id);
+        }
+        if(commas >= LEGACY_COMMAS){
+            index.addLegacy(lineStart, position, line);
+        }
+        index.end = position;
+        return index;
+    }
+
+    private static String decode(ByteArrayOutputStream id){
+        return new String(id.toByteArray(), StandardCharsets.UTF_8).strip();
+    }
+
+    private void add(long offset, int line){
+        if(count == offsets.length){
+            offsets = Arrays.copyOf(offsets, count * 2);
+            lines = Arrays.copyOf(lines, count * 2);
+            if(ids != null){
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+        }
+        offsets[count] = offset;
+        lines[count] = line;
+        count++;
+    }
+
+    private void addLegacy(long offset, long end, int line){
+        if(legacyCount == legacyOffsets.length){
+            legacyOffsets = Arrays.copyOf(legacyOffsets, legacyCount * 2);
+            legacyEnds = Arrays.copyOf(legacyEnds, legacyCount * 2);
+            legacyLines = Arrays.copyOf(legacyLines, legacyCount * 2);
+        }
+        legacyOffsets[legacyCount] = offset;
+        legacyEnds[legacyCount] = end;
+        legacyLines[legacyCount] = line;
+        legacyCount++;
+    }
+
+    /**
+    Retrieves the number of rooms in the file.
+    Returns:
+    the room count
+    */
+    int getCount(){
+        return count;
+    }
+
+    /**
+    Retrieves where a room's section starts.
+    Parameters:
+    room - the room's position in the file, starting at 0
+    Returns:
+    the byte offset of the room's record
+    */
+    long getStart(int room){
+        return offsets[room];
+    }
+
+    /**
+    Retrieves where a room's section ends.
+    Parameters:
+    room - the room's position in the file, starting at 0
+    Returns:
+    the byte offset of the next room's record, or the length of the file for the last room
+    */
+    long getEnd(int room){
+        return room + 1 < count ? offsets[room + 1] : end;
+    }
+
+    /**
+    Retrieves the line a room's record is on.
+    Parameters:
+    room - the room's position in the file, starting at 0
+    Returns:
+    the line number, starting at 1
+    */
+    int getLine(int room){
+        return lines[room];
+    }
+
+    /**
+    Retrieves a room's ID, if the index was built with IDs.
+    Parameters:
+    room - the room's position in the file, starting at 0
+    Returns:
+    the room's ID
+    */
+    String getId(int room){
+        return ids[room];
+    }
+
+    /**
+    Retrieves the number of equipment records in rooms that carry old-style use fields.
+    Returns:
+    the number of such records
+    */
+    int getLegacyCount(){
+        return legacyCount;
+    }
+
+    /**
+    Retrieves where an equipment record with old-style use fields starts.
+    Parameters:
+    record - the record's position among such records, starting at 0
+    Returns:
+    the byte offset of the record
+    */
+    long getLegacyStart(int record){
+        return legacyOffsets[record];
+    }
+
+    /**
+    Retrieves where an equipment record with old-style use fields ends.
+    Parameters:
+    record - the record's position among such records, starting at 0
+    Returns:
+    the byte offset just past the record's line
+    */
+    long getLegacyEnd(int record){
+        return legacyEnds[record];
+    }
+
+    /**
+    Retrieves the line an equipment record with old-style use fields is on.
+    Parameters:
+    record - the record's position among such records, starting at 0
+    Returns:
+    the line number, starting at 1
+    */
+    int getLegacyLine(int record){
+        return legacyLines[record];
+    }
+
+    /**
+    Retrieves where the header, everything before the first room, ends.
+    Returns:
+    the byte offset of the first room's record, or the length of the file if it has no rooms
+    */
+    long getHeaderEnd(){
+        return count > 0 ? offsets[0] : end;
+    }
+
+    /**
+    Retrieves the length of the file when it was scanned.
+    Returns:
+    the file's length in bytes
+    */
+    long getEnd(){
+        return end;
+    }
+}
@@ -0,0 +1,44 @@
+package utils;
+
+/**
+ * Thrown when a world file cannot be loaded, reporting where in the file the problem is.
+ */
+public class WorldFileException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private int line;
+    private int column;
+
+    /**
+    Constructs a new WorldFileException for a problem at a position in a world file.
+    Parameters:
+    source - the name of the file, used in the message
+    line - the line number, starting at 1
+    column - the column number, starting at 1
+    error - the description of the problem
+    */
+    public WorldFileException(String source, int line, int column, String error){
+        super(source + ":" + line + ":" + column + ": " + error);
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+    Retrieves the line the problem is on.
+    Returns:
+    the line number, starting at 1
+    */
+    public int getLine(){
+        return line;
+    }
+
+    /**
+    Retrieves the column the problem starts at.
+    Returns:
+    the column number, starting at 1
+    */
+    public int getColumn(){
+        return column;
+    }
+}
@@ -0,0 +1,271 @@
+package utils;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Streams the records of a world file, one line at a time, without regular expressions or holding whole lines.
+ *
+ * <p>
+ * A record has the form {@code type:field,field,...}. The reader scans characters from a buffer, ending the type
+ * at the first {@code :} and fields at each {@code ,}; a backslash makes the next character literal, so
+ * descriptions may contain {@code \:}, {@code \,} or {@code \\}. A record type can be given a field limit, after
+ * which the last field runs to the end of the line. Fields are trimmed, short fields are pooled so repeated names
+ * and descriptions share one string, and the line and column of every field are kept for error reporting.
+ * Blank lines are skipped.
+ * </p>
+ */
+public class WorldFileReader implements Closeable {
+
+    private static final int POOLED_LENGTH = 64; //fields up to this length are shared between records
+    private static final int POOL_SIZE = 16384; //once full, the pool only shares the strings it already has
+
+    private Reader in;
+    private String source;
+    private java.util.Map<String, Integer> fieldLimits;
+    private char[] buffer;
+    private int position;
+    private int limit;
+    private int line;
+    private int column;
+
+    private String type;
+    private int typeColumn;
+    private ArrayList<String> fields;
+    private int[] columns;
+    private int recordLine;
+    private StringBuilder field;
+    private HashMap<String, String> pool;
+
+    /**
+    Creates a reader over a stream of world file text.
+    Parameters:
+    in - the world file text
+    source - the name of the file, used in error messages
+    firstLine - the line number of the first line in the stream, normally 1
+    fieldLimits - the maximum number of fields of each record type, or null for no limits
+    */
+    public WorldFileReader(Reader in, String source, int firstLine, java.util.Map<String, Integer> fieldLimits){
+        this.in = in;
+        this.source = source;
+        this.fieldLimits = fieldLimits;
+        this.buffer = new char[8192];
+        this.line = firstLine - 1;
+        this.fields = new ArrayList<>();
+        this.columns = new int[16];
+        this.field = new StringBuilder();
+        this.pool = new HashMap<>();
+    }
+
+    /**
+    Opens a world file through a buffered channel.
+    Parameters:
+    filename - the world file
+    fieldLimits - the maximum number of fields of each record type, or null for no limits
+    Returns:
+    a reader positioned before the first record
+    Throws:
+    IOException - if the file cannot be opened
+    */
+    public static WorldFileReader open(String filename, java.util.Map<String, Integer> fieldLimits) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+        Reader reader = Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), 64 * 1024);
+        return new WorldFileReader(reader, filename, 1, fieldLimits);
+    }
+
+    /**
+    Advances to the next record.
+    Returns:
+    true if a record was read, false at the end of the file
+    Throws:
+    IOException - if the file cannot be read
+    WorldFileException - if a non-blank line has no record type
+    */
+    public boolean next() throws IOException {
+        while(true){
+            int c = read();
+            if(c < 0){
+                return false;
+            }
+            line++;
+            column = 0;
+            if(readRecord(c)){
+                return true;
+            }
+        }
+    }
+
+    //reads the rest of a line starting with c; returns false for a blank line
+    private boolean readRecord(int c) throws IOException {
+        type = null;
+        fields.clear();
+        field.setLength(0);
+        recordLine = line;
+        typeColumn = column;
+        int fieldColumn = column;
+        int maxFields = Integer.MAX_VALUE;
+        boolean blank = true;
+
+        while(c >= 0 && c != '\n'){
+            if(c == '\\'){
+                int escaped = read();
+                if(escaped < 0 || escaped == '\n'){
+                    throw error(column, "Backslash at end of line");
+                }
+                field.append((char) escaped);
+                blank = false;
+            } else if(c == ':' && type == null){
+                type = field.toString().trim();
+                field.setLength(0);
+                fieldColumn = column + 1;
+                Integer fieldLimit = fieldLimits != null ? fieldLimits.get(type) : null;
+                maxFields = fieldLimit != null ? fieldLimit : Integer.MAX_VALUE;
+            } else if(c == ',' && type != null && fields.size() < maxFields - 1){
+                addField(fieldColumn);
+                fieldColumn = column + 1;
+            } else if(c != '\r'){
+                if(field.length() == 0 && Character.isWhitespace(c)){
+                    fieldColumn = column + 1; //leading whitespace is trimmed
+                } else{
+                    field.append((char) c);
+                    blank = false;
+                }
+            }
+            c = read();
+        }
+
+        if(type == null){
+            if(blank){
+                return false;
+            }
+            throw error(typeColumn, "Expected a record of the form type:field,...");
+        }
+        addField(fieldColumn);
+        return true;
+    }
+
+    private void addField(int fieldColumn){
+        int end = field.length();
+        while(end > 0 && Character.isWhitespace(field.charAt(end - 1))){
+            end--;
+        }
+        field.setLength(end);
+        String value = field.toString();
+        if(value.length() <= POOLED_LENGTH){
+            String pooled = pool.get(value);
+            if(pooled != null){
+                value = pooled;
+            } else if(pool.size() < POOL_SIZE){
+                pool.put(value, value);
+            }
+        }
+        if(fields.size() == columns.length){
+            columns = java.util.Arrays.copyOf(columns, columns.length * 2);
+        }
+        columns[fields.size()] = fieldColumn;
+        fields.add(value);
+        field.setLength(0);
+    }
+
+    private int read() throws IOException {
+        if(position == limit){
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if(limit <= 0){
+                limit = 0;
+                return -1;
+            }
+        }
+        column++;
+        return buffer[position++];
+    }
+
+    /**
+    Retrieves the type of the current record, e.g. "room".
+    Returns:
+    the record type
+    */
+    public String getType(){
+        return type;
+    }
+
+    /**
+    Retrieves the number of fields in the current record.
+    Returns:
+    the field count
+    */
+    public int getFieldCount(){
+        return fields.size();
+    }
+
+    /**
+    Retrieves a field of the current record.
+    Parameters:
+    index - the index of the field, starting at 0 for the first field after the type
+    Returns:
+    the trimmed field value
+    Throws:
+    WorldFileException - if the record has no such field
+    */
+    public String getField(int index){
+        if(index >= fields.size()){
+            Integer expected = fieldLimits != null ? fieldLimits.get(type) : null;
+            int needed = expected != null ? expected : index + 1;
+            throw error(columns[fields.size() - 1], type + " record needs " + needed + " fields but has " + fields.size());
+        }
+        return fields.get(index);
+    }
+
+    /**
+    Retrieves a true/false field of the current record.
+    Parameters:
+    index - the index of the field
+    Returns:
+    the field's value
+    Throws:
+    WorldFileException - if the record has no such field or it is not true or false
+    */
+    public boolean getBoolean(int index){
+        String value = getField(index);
+        if(value.equalsIgnoreCase("true")){
+            return true;
+        } else if(value.equalsIgnoreCase("false")){
+            return false;
+        }
+        throw error(columns[index], "Expected true or false but found '" + value + "'");
+    }
+
+    /**
+    Retrieves the line number of the current record.
+    Returns:
+    the line number, starting at 1
+    */
+    public int getLine(){
+        return recordLine;
+    }
+
+    /**
+    Creates an exception describing a problem with the current record's field.
+    Parameters:
+    index - the index of the field the problem is in
+    error - the description of the problem
+    Returns:
+    the exception, for the caller to throw
+    */
+    public WorldFileException fieldError(int index, String error){
+        return error(index < fields.size() ? columns[index] : typeColumn, error);
+    }
+
+    private WorldFileException error(int errorColumn, String error){
+        return new WorldFileException(source, line, errorColumn, error);
+    }
+
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,338 @@
+package utils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+import gameobjects.*;
+
+/**
+ * Compiles a world text file into a versioned binary snapshot and loads snapshots back into a {@code WorldTemplate}.
+ *
+ * <p>
+ * A snapshot holds a string table followed by fixed-layout records for the rooms and their objects, with exits
+ * stored as room indices. Loading maps the file and decodes the records straight into the runtime model, so
+ * starting a big world costs little more than reading it. {@link #load(String)} uses the snapshot next to a
+ * world file when it is up to date and recompiles it when the text file is newer or the format has changed.
+ * </p>
+ */
+public class WorldSnapshot {
+
+    ///Identifies snapshot files ("TBGW").
+    public static final int MAGIC = 0x54424757;
+    ///The snapshot format version; snapshots of any other version are recompiled.
+    public static final int VERSION = 6;
+    ///Appended to a world file's name to get its snapshot's name.
+    public static final String EXTENSION = ".bin";
+
+    //object kinds within a room record
+    private static final byte FEATURE = 0;
+    private static final byte CONTAINER = 1;
+    //prototype kinds
+    private static final byte ITEM = 0;
+    private static final byte EQUIPMENT = 1;
+
+    public WorldSnapshot(){
+    }
+
+    /**
+    Compiles world text files into snapshots from the command line.
+    Parameters:
+    args - the world files to compile; each snapshot is written next to its world file
+    Throws:
+    IOException - if a snapshot cannot be written
+    */
+    public static void main(String[] args) throws IOException {
+        for(String filename : args){
+            compile(filename, filename + EXTENSION);
+            System.out.println("Compiled " + filename + " to " + filename + EXTENSION);
+        }
+    }
+
+    /**
+    Loads the world in a text file, using its snapshot when that is current and (re)compiling the snapshot otherwise.
+    Failing to write the snapshot is not an error; the parsed world is returned regardless.
+    Parameters:
+    filename - the world text file
+    Returns:
+    the loaded world
+    */
+    public static WorldTemplate load(String filename){
+        Path text = Paths.get(filename);
+        Path snapshot = Paths.get(filename + EXTENSION);
+        try{
+            if(Files.isRegularFile(snapshot) && Files.getLastModifiedTime(snapshot).compareTo(Files.getLastModifiedTime(text)) >= 0){
+                WorldTemplate world = read(snapshot.toString());
+                if(world != null){
+                    return world;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            //unreadable or corrupt snapshot: fall back to the text file
+        }
+
+        WorldTemplate world = GameStateFileParser.parseTemplate(filename);
+        try{
+            write(world, snapshot.toString());
+        } catch (IOException e) {
+            //the snapshot is only a cache
+        }
+        return world;
+    }
+
+    /**
+    Compiles a world text file into a snapshot.
+    Parameters:
+    textFile - the world text file
+    snapshotFile - the snapshot file to write
+    Throws:
+    IOException - if the snapshot cannot be written
+    */
+    public static void compile(String textFile, String snapshotFile) throws IOException {
+        write(GameStateFileParser.parseTemplate(textFile), snapshotFile);
+    }
+
+    /**
+    Writes a world to a snapshot file.
+    Parameters:
+    world - the world to write
+    snapshotFile - the snapshot file to write
+    Throws:
+    IOException - if the file cannot be written
+    */
+    public static void write(WorldTemplate world, String snapshotFile) throws IOException {
+        ArrayList<Room> rooms = world.getMap().getRooms();
+        HashMap<String, Integer> roomIndex = new HashMap<>();
+        for(int i = 0; i < rooms.size(); i++){
+            roomIndex.putIfAbsent(rooms.get(i).getId(), i);
+        }
+
+        //collect every string once; records refer to them by index
+        LinkedHashMap<String, Integer> strings = new LinkedHashMap<>();
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+
+        records.writeInt(string(strings, world.getPlayerName()));
+        records.writeInt(world.getObjectives().size());
+        for(Objective objective : world.getObjectives()){
+            records.writeInt(string(strings, objective.getId()));
+            records.writeInt(string(strings, objective.getMessage()));
+            records.writeInt(objective.getRequirementCount());
+            for(int i = 0; i < objective.getRequirementCount(); i++){
+                records.writeInt(string(strings, objective.getRequiredId(i)));
+            }
+        }
+        UseRules useRules = world.getUseRules();
+        records.writeInt(useRules.getPrototypes().size());
+        for(GameObject prototype : useRules.getPrototypes()){
+            records.writeByte(prototype instanceof Equipment ? EQUIPMENT : ITEM);
+            writeObject(records, strings, prototype);
+        }
+        records.writeInt(useRules.getRules().size());
+        for(UseRule rule : useRules.getRules()){
+            records.writeInt(string(strings, rule.getEquipmentId()));
+            records.writeInt(string(strings, rule.getTargetId()));
+            records.writeInt(string(strings, rule.getEffectsText()));
+            records.writeInt(string(strings, rule.getMessage()));
+        }
+        records.writeInt(useRules.getRecipes().size());
+        for(Recipe recipe : useRules.getRecipes()){
+            records.writeInt(string(strings, String.join(" ", recipe.getInputIds())));
+            records.writeInt(string(strings, String.join(" ", recipe.getOutputIds())));
+            records.writeInt(recipe.getPoints());
+            records.writeInt(string(strings, recipe.getMessage()));
+        }
+        Integer start = roomIndex.get(world.getStartRoomId());
+        records.writeInt(start != null ? start : -1);
+        records.writeInt(rooms.size());
+        for(Room room : rooms){
+            records.writeInt(string(strings, room.getId()));
+        }
+        for(Room room : rooms){
+            records.writeInt(string(strings, room.getName()));
+            records.writeInt(string(strings, room.getDescription()));
+            records.writeBoolean(room.getHidden());
+            records.writeInt(room.getFeatures().size());
+            for(Feature feature : room.getFeatures()){
+                records.writeByte(feature instanceof Container ? CONTAINER : FEATURE);
+                writeObject(records, strings, feature);
+            }
+            records.writeInt(room.getEquipments().size());
+            for(Equipment equipment : room.getEquipments()){
+                writeObject(records, strings, equipment);
+            }
+            records.writeInt(room.getItems().size());
+            for(Item item : room.getItems()){
+                writeObject(records, strings, item);
+            }
+            records.writeInt(room.getExits().size());
+            for(Exit exit : room.getExits()){
+                writeObject(records, strings, exit);
+                //exits to known rooms are stored by index; anything else keeps its ID as a negative string reference
+                Integer target = roomIndex.get(exit.getNextRoom());
+                records.writeInt(target != null ? target : -2 - string(strings, exit.getNextRoom()));
+            }
+        }
+        records.flush();
+
+        Path path = Paths.get(snapshotFile);
+        Path temporary = Paths.get(snapshotFile + ".tmp");
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))){
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(strings.size());
+            for(String s : strings.keySet()){
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            recordBytes.writeTo(out);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+    Reads a snapshot file into a world.
+    Parameters:
+    snapshotFile - the snapshot file to read
+    Returns:
+    the loaded world, or null if the file is not a snapshot of the current version
+    Throws:
+    IOException - if the file cannot be read
+    */
+    public static WorldTemplate read(String snapshotFile) throws IOException {
+        MappedByteBuffer buffer;
+        try(FileChannel channel = FileChannel.open(Paths.get(snapshotFile), StandardOpenOption.READ)){
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if(buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION){
+            return null;
+        }
+
+        String[] strings = new String[buffer.getInt()];
+        for(int i = 0; i < strings.length; i++){
+            int length = buffer.getInt();
+            strings[i] = new String(bytes(buffer, length), StandardCharsets.UTF_8);
+        }
+
+        String playerName = string(strings, buffer.getInt());
+        ArrayList<Objective> objectives = new ArrayList<>(0);
+        int objectiveCount = buffer.getInt();
+        for(int o = 0; o < objectiveCount; o++){
+            String id = string(strings, buffer.getInt());
+            String message = string(strings, buffer.getInt());
+            String[] requiredIds = new String[buffer.getInt()];
+            for(int i = 0; i < requiredIds.length; i++){
+                requiredIds[i] = string(strings, buffer.getInt());
+            }
+            objectives.add(new Objective(id, requiredIds, message));
+        }
+        UseRules useRules = new UseRules();
+        int prototypeCount = buffer.getInt();
+        for(int p = 0; p < prototypeCount; p++){
+            if(buffer.get() == EQUIPMENT){
+                useRules.addPrototype(readEquipment(buffer, strings));
+            } else{
+                useRules.addPrototype(new Item(string(strings, buffer.getInt()), string(strings, buffer.getInt()), string(strings, buffer.getInt()), buffer.get() != 0));
+            }
+        }
+        int ruleCount = buffer.getInt();
+        for(int r = 0; r < ruleCount; r++){
+            String equipmentId = string(strings, buffer.getInt());
+            String targetId = string(strings, buffer.getInt());
+            UseEffect[] effects = UseEffect.parseAll(string(strings, buffer.getInt()));
+            useRules.add(equipmentId, targetId, effects, string(strings, buffer.getInt()));
+        }
+        int recipeCount = buffer.getInt();
+        for(int r = 0; r < recipeCount; r++){
+            String[] inputIds = string(strings, buffer.getInt()).split(" ");
+            String outputs = string(strings, buffer.getInt());
+            String[] outputIds = outputs.isEmpty() ? new String[0] : outputs.split(" ");
+            int points = buffer.getInt();
+            useRules.addRecipe(new Recipe(inputIds, outputIds, points, string(strings, buffer.getInt())));
+        }
+        int start = buffer.getInt();
+        int roomCount = buffer.getInt();
+        Map map = new Map();
+        String[] roomIds = new String[roomCount]; //listed up front so exits can be resolved as they are read
+        for(int r = 0; r < roomCount; r++){
+            roomIds[r] = string(strings, buffer.getInt());
+        }
+
+        for(int r = 0; r < roomCount; r++){
+            Room room = new Room(roomIds[r], string(strings, buffer.getInt()), string(strings, buffer.getInt()), buffer.get() != 0);
+            int features = buffer.getInt();
+            for(int i = 0; i < features; i++){
+                byte kind = buffer.get();
+                String id = string(strings, buffer.getInt());
+                String name = string(strings, buffer.getInt());
+                String description = string(strings, buffer.getInt());
+                boolean hidden = buffer.get() != 0;
+                room.addFeature(kind == CONTAINER ? new Container(id, name, description, hidden) : new Feature(id, name, description, hidden));
+            }
+            int equipments = buffer.getInt();
+            for(int i = 0; i < equipments; i++){
+                room.addEquipment(readEquipment(buffer, strings));
+            }
+            int items = buffer.getInt();
+            for(int i = 0; i < items; i++){
+                room.addItem(new Item(string(strings, buffer.getInt()), string(strings, buffer.getInt()), string(strings, buffer.getInt()), buffer.get() != 0));
+            }
+            int exitCount = buffer.getInt();
+            for(int i = 0; i < exitCount; i++){
+                String id = string(strings, buffer.getInt());
+                String name = string(strings, buffer.getInt());
+                String description = string(strings, buffer.getInt());
+                boolean hidden = buffer.get() != 0;
+                int target = buffer.getInt();
+                String nextRoom = target >= 0 ? roomIds[target] : string(strings, -2 - target);
+                room.addExit(new Exit(id, name, description, nextRoom, hidden));
+            }
+            map.addRoom(room);
+        }
+        if(start >= 0){
+            map.setCurrentRoom(roomIds[start]);
+        }
+        return new WorldTemplate(playerName, map, objectives, useRules);
+    }
+
+    private static Equipment readEquipment(ByteBuffer buffer, String[] strings){
+        return new Equipment(string(strings, buffer.getInt()), string(strings, buffer.getInt()), string(strings, buffer.getInt()), buffer.get() != 0);
+    }
+
+    private static void writeObject(DataOutputStream out, LinkedHashMap<String, Integer> strings, GameObject object) throws IOException {
+        out.writeInt(string(strings, object.getId()));
+        out.writeInt(string(strings, object.getName()));
+        out.writeInt(string(strings, object.getDescription()));
+        out.writeBoolean(object.getHidden());
+    }
+
+    //index of a string in the table being built, adding it if new; -1 stands for null
+    private static int string(LinkedHashMap<String, Integer> strings, String s){
+        if(s == null){
+            return -1;
+        }
+        Integer index = strings.get(s);
+        if(index == null){
+            index = strings.size();
+            strings.put(s, index);
+        }
+        return index;
+    }
+
+    private static String string(String[] strings, int index){
+        return index >= 0 ? strings[index] : null;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer, int length){
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+}